@@ -1,16 +1,18 @@
 package lootcrate;
 
 import lootcrate.enums.*;
+import lootcrate.events.listeners.CrateActivationListener;
 import lootcrate.events.listeners.LootCrateInteractListener;
 import lootcrate.events.listeners.PlayerChatListener;
 import lootcrate.events.listeners.PlayerJoinListener;
+import lootcrate.events.listeners.WorldLoadListener;
 import lootcrate.events.listeners.custom.CrateAccessListener;
 import lootcrate.events.listeners.custom.CrateOpenListener;
 import lootcrate.events.listeners.custom.CrateViewListener;
 import lootcrate.gui.events.listeners.GUICloseListener;
+import lootcrate.gui.events.listeners.GUIDispatchListener;
 import lootcrate.managers.*;
 import lootcrate.objects.*;
-import lootcrate.utils.ParticleUtils;
 import org.bukkit.ChatColor;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
@@ -41,8 +43,8 @@ public class LootCrate extends JavaPlugin {
         createManagersMap();
 
         registerEvents(new LootCrateInteractListener(this), new CrateAccessListener(this), new CrateOpenListener(this),
-                new CrateViewListener(this), new GUICloseListener(this), new PlayerJoinListener(this),
-                new PlayerChatListener(this));
+                new CrateViewListener(this), new GUICloseListener(this), new GUIDispatchListener(this), new PlayerJoinListener(this),
+                new PlayerChatListener(this), new WorldLoadListener(this), new CrateActivationListener(this));
 
 
         toggleManagers(true);
@@ -73,41 +75,6 @@ public class LootCrate extends JavaPlugin {
             }
 
         }, 80L);
-
-        // Ajout : Effets de particules et effets visuels spéciaux autour des caisses
-        Bukkit.getScheduler().runTaskTimer(this, () -> {
-            LocationManager locationManager = getManager(LocationManager.class);
-            if (locationManager == null) return;
-            Map<org.bukkit.Location, Crate> locations = locationManager.getLocationList();
-            org.bukkit.configuration.ConfigurationSection section = getConfig().getConfigurationSection("particule");
-            org.bukkit.configuration.ConfigurationSection effectSection = getConfig().getConfigurationSection("effect");
-            for (Map.Entry<org.bukkit.Location, Crate> entry : locations.entrySet()) {
-                Crate crate = entry.getValue();
-                String crateName = crate.getName();
-                org.bukkit.Location loc = entry.getKey().clone().add(0.5, 1.2, 0.5); // au-dessus du bloc
-                // Effet de particule
-                if (section != null && section.contains(crateName)) {
-                    String color = section.getString(crateName);
-                    if (color != null && !color.equalsIgnoreCase("none")) {
-                        org.bukkit.Particle.DustOptions dust = ParticleUtils.getDustOptions(color);
-                        if (dust != null) {
-                            loc.getWorld().spawnParticle(org.bukkit.Particle.DUST, loc, 10, 0.3, 0.3, 0.3, 0, dust);
-                        }
-                    }
-                }
-                // Effet visuel spécial
-                if (effectSection != null && effectSection.contains(crateName)) {
-                    String effect = effectSection.getString(crateName);
-                    if (effect != null) {
-                        if (effect.equalsIgnoreCase("explosion")) {
-                            loc.getWorld().spawnParticle(org.bukkit.Particle.EXPLOSION, loc, 1, 0, 0, 0, 0);
-                        } else if (effect.equalsIgnoreCase("thunder") || effect.equalsIgnoreCase("lightning")) {
-                            loc.getWorld().strikeLightningEffect(loc);
-                        }
-                    }
-                }
-            }
-        }, 40L, 20L); // toutes les secondes
     }
 
     private void createManagersMap() {
@@ -130,6 +97,10 @@ public class LootCrate extends JavaPlugin {
         managersMap.put(14, new ChatManager(this));
         managersMap.put(15, new CooldownManager(this));
         managersMap.put(16, new AntiSpamBroadcastManager(this));
+        managersMap.put(17, new StorageManager(this));
+        managersMap.put(18, new ActivationManager(this));
+        managersMap.put(19, new AmbientEffectManager(this));
+        managersMap.put(20, new AnimationManager(this));
 
     }
 
@@ -212,6 +183,8 @@ public class LootCrate extends JavaPlugin {
         cacheManager.reload();
         locationManager.reload();
         keyFileManager.reload();
+        getManager(AmbientEffectManager.class).compile();
+        getManager(AnimationManager.class).reload();
 
         if (isHologramPluginDetected(HologramPlugin.DECENT_HOLOGRAMS))
             holoManager.reload();
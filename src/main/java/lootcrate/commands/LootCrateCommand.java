@@ -85,6 +85,18 @@ public class LootCrateCommand extends Command {
             case "option":
                 new SubCommandLootCrateOption(plugin, sender, args).runSubCommand(true);
                 break;
+            case "open":
+                new SubCommandLootCrateOpen(plugin, sender, args).runSubCommand(true);
+                break;
+            case "simulate":
+                new SubCommandLootCrateSimulate(plugin, sender, args).runSubCommand(false);
+                break;
+            case "sessions":
+                new SubCommandLootCrateSessions(plugin, sender, args).runSubCommand(false);
+                break;
+            case "skip":
+                new SubCommandLootCrateSkip(plugin, sender, args).runSubCommand(true);
+                break;
             default:
                 plugin.getManager(MessageManager.class).sendMessage(sender, Message.LOOTCRATE_BASIC_USAGE, null);
                 break;
@@ -131,6 +143,14 @@ public class LootCrateCommand extends Command {
                 list.add("preview");
             if (hasPermission(sender, Permission.COMMAND_LOOTCRATE_CLAIM))
                 list.add("claim");
+            if (hasPermission(sender, Permission.COMMAND_LOOTCRATE_OPEN))
+                list.add("open");
+            if (hasPermission(sender, Permission.COMMAND_LOOTCRATE_SIMULATE))
+                list.add("simulate");
+            if (hasPermission(sender, Permission.COMMAND_LOOTCRATE_SESSIONS))
+                list.add("sessions");
+            if (hasPermission(sender, Permission.COMMAND_LOOTCRATE_SKIP))
+                list.add("skip");
             return list;
         }
 
@@ -173,6 +193,14 @@ public class LootCrateCommand extends Command {
                 return new SubCommandLootCrateClaim(plugin, sender, args).runTabComplete();
             case "option":
                 return new SubCommandLootCrateOption(plugin, sender, args).runTabComplete();
+            case "open":
+                return new SubCommandLootCrateOpen(plugin, sender, args).runTabComplete();
+            case "simulate":
+                return new SubCommandLootCrateSimulate(plugin, sender, args).runTabComplete();
+            case "sessions":
+                return new SubCommandLootCrateSessions(plugin, sender, args).runTabComplete();
+            case "skip":
+                return new SubCommandLootCrateSkip(plugin, sender, args).runTabComplete();
             default:
                 return list;
         }
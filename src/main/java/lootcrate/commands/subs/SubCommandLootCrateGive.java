@@ -13,6 +13,7 @@ import lootcrate.utils.*;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -85,17 +86,18 @@ public class SubCommandLootCrateGive extends SubCommand {
                 return;
             }
 
-            for(int i = Integer.parseInt(args[3]); i > 0; i--)
+            int amount = Integer.parseInt(args[3]);
+            if(amount > 0)
             {
-                if(player == null) giveAllKey(crate);
-                else giveKey(player, crate);
+                if(player == null) giveAllKey(crate, amount);
+                else giveKey(player, crate, amount);
             }
-            sendMessage(player, crate, Integer.parseInt(args[3]));
+            sendMessage(player, crate, amount);
 
         } else
         {
-            if(player == null) giveAllKey(crate);
-            else giveKey(player, crate);
+            if(player == null) giveAllKey(crate, 1);
+            else giveKey(player, crate, 1);
             sendMessage(player, crate, 1);
         }
     }
@@ -122,24 +124,24 @@ public class SubCommandLootCrateGive extends SubCommand {
         return list;
     }
 
-    private void giveKey(Player p, Crate crate)
+    private void giveKey(Player p, Crate crate, int amount)
     {
-        distributeCrateKey(crate, p);
+        distributeCrateKey(crate, p, amount);
     }
 
-    private void giveAllKey(Crate crate)
+    private void giveAllKey(Crate crate, int amount)
     {
         for(Player p : Bukkit.getOnlinePlayers()) {
-            distributeCrateKey(crate, p);
+            distributeCrateKey(crate, p, amount);
         }
     }
 
-    private void distributeCrateKey(Crate crate, Player p) {
+    private void distributeCrateKey(Crate crate, Player p, int amount) {
         if ((Boolean) optionManager.valueOf(Option.LOOTCRATE_CLAIM_ENABLED)){
             if((Boolean) optionManager.valueOf(Option.PRIORITIZE_INVENTORY_OVER_CLAIM))
-                p.getInventory().addItem(ObjUtils.assignCrateToKey(plugin, crate));
+                p.getInventory().addItem(keyStack(crate, amount));
             else
-                keyCacheManager.update(p.getUniqueId(), crate);
+                keyCacheManager.update(p.getUniqueId(), crate, amount);
         }
         else
         {
@@ -149,11 +151,22 @@ public class SubCommandLootCrateGive extends SubCommand {
             }
             else
             {
-                p.getInventory().addItem(ObjUtils.assignCrateToKey(plugin, crate));
+                p.getInventory().addItem(keyStack(crate, amount));
             }
         }
     }
 
+    /**
+     * Gets a stack of keys to a crate, split into several stacks by addItem
+     * when it is larger than the item's max stack size
+     */
+    private ItemStack keyStack(Crate crate, int amount)
+    {
+        ItemStack key = ObjUtils.assignCrateToKey(plugin, crate).clone();
+        key.setAmount(amount);
+        return key;
+    }
+
 
     private void sendMessage(Player p, Crate crate, int amount)
     {
@@ -0,0 +1,102 @@
+package lootcrate.commands.subs;
+
+import com.google.common.collect.ImmutableMap;
+import lootcrate.LootCrate;
+import lootcrate.commands.SubCommand;
+import lootcrate.enums.Message;
+import lootcrate.enums.Permission;
+import lootcrate.enums.Placeholder;
+import lootcrate.objects.Crate;
+import lootcrate.utils.CommandUtils;
+import lootcrate.utils.TabUtils;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public class SubCommandLootCrateOpen extends SubCommand {
+    private final String[] args;
+    private final CommandSender sender;
+    private final LootCrate plugin;
+
+    /**
+     * Default constructor for any {@link SubCommand}
+     *
+     * @param plugin an instance of {@link LootCrate}
+     * @param sender the {@link CommandSender} which is executing this command
+     * @param args the following arguments in the command string
+     *
+     */
+    public SubCommandLootCrateOpen(LootCrate plugin, CommandSender sender, String[] args) {
+        super(plugin, sender, args, Permission.COMMAND_LOOTCRATE_OPEN, Permission.COMMAND_LOOTCRATE_ADMIN);
+        this.plugin = plugin;
+        this.sender = sender;
+        this.args = args;
+    }
+
+    @Override
+    public void runSubCommand(boolean playerRequired) {
+        if (this.testPlayer(playerRequired))
+            return;
+        if (!this.testPermissions())
+            return;
+
+        if (args.length <= 2) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_OPEN_USAGE, null);
+            return;
+        }
+
+        if (CommandUtils.tryParse(args[1]) == null) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_OPEN_USAGE, null);
+            return;
+        }
+
+        Crate crate = cacheManager.getCrateById(CommandUtils.tryParse(args[1]));
+        if (crate == null) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_NOT_FOUND,
+                    ImmutableMap.of(Placeholder.CRATE_ID, "" + CommandUtils.tryParse(args[1])));
+            return;
+        }
+
+        int amount;
+        if (args[2].equalsIgnoreCase("all"))
+            amount = Integer.MAX_VALUE;
+        else if (CommandUtils.tryParse(args[2]) != null && CommandUtils.tryParse(args[2]) > 0)
+            amount = CommandUtils.tryParse(args[2]);
+        else {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_OPEN_USAGE, null);
+            return;
+        }
+
+        Player p = (Player) sender;
+
+        if (!CommandUtils.hasCratePermission(crate, p)) {
+            messageManager.sendMessage(p, Message.NO_PERMISSION_LOOTCRATE_INTERACT,
+                    ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName()));
+            return;
+        }
+
+        crateManager.openBulk(crate, p, amount);
+    }
+
+    @Override
+    public List<String> runTabComplete() {
+        List<String> list = new LinkedList<String>();
+
+        if (!sender.hasPermission(Permission.COMMAND_LOOTCRATE_OPEN.getKey())
+                && !sender.hasPermission(Permission.COMMAND_LOOTCRATE_ADMIN.getKey()))
+            return list;
+
+        if (args.length == 2) {
+            list.add("[CrateID]");
+            TabUtils.addCratesToList(list, cacheManager);
+        }
+        if (args.length == 3) {
+            list.add("(Amount)");
+            list.add("all");
+        }
+        return list;
+    }
+
+}
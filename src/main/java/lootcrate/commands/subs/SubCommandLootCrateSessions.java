@@ -0,0 +1,69 @@
+package lootcrate.commands.subs;
+
+import com.google.common.collect.ImmutableMap;
+import lootcrate.LootCrate;
+import lootcrate.commands.SubCommand;
+import lootcrate.enums.Message;
+import lootcrate.enums.Permission;
+import lootcrate.enums.Placeholder;
+import lootcrate.gui.frames.types.AnimatedFrame;
+import lootcrate.managers.InventoryManager;
+import lootcrate.objects.FrameSession;
+import org.bukkit.command.CommandSender;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+public class SubCommandLootCrateSessions extends SubCommand {
+    private final String[] args;
+    private final CommandSender sender;
+    private final LootCrate plugin;
+
+    /**
+     * Default constructor for any {@link SubCommand}
+     *
+     * @param plugin an instance of {@link LootCrate}
+     * @param sender the {@link CommandSender} which is executing this command
+     * @param args the following arguments in the command string
+     *
+     */
+    public SubCommandLootCrateSessions(LootCrate plugin, CommandSender sender, String[] args) {
+        super(plugin, sender, args, Permission.COMMAND_LOOTCRATE_SESSIONS, Permission.COMMAND_LOOTCRATE_ADMIN);
+        this.plugin = plugin;
+        this.sender = sender;
+        this.args = args;
+    }
+
+    @Override
+    public void runSubCommand(boolean playerRequired) {
+        if (this.testPlayer(playerRequired))
+            return;
+        if (!this.testPermissions())
+            return;
+
+        if (args.length != 1) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SESSIONS_USAGE, null);
+            return;
+        }
+
+        Collection<FrameSession> sessions = plugin.getManager(InventoryManager.class).getSessions();
+        messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SESSIONS_HEADER,
+                ImmutableMap.of(Placeholder.VALUE, sessions.size() + ""));
+
+        long now = System.currentTimeMillis();
+        for (FrameSession session : sessions) {
+            messageManager.sendNoPrefixMessage(sender, Message.LOOTCRATE_COMMAND_SESSIONS_FORMAT,
+                    ImmutableMap.of(Placeholder.PLAYER_NAME, session.getPlayerName(),
+                            Placeholder.FRAME_NAME, session.getFrame().getClass().getSimpleName(),
+                            Placeholder.TIME, (now - session.getOpenedAt()) / 1000L + "",
+                            Placeholder.ANIMATION_TICK, session.isAnimating() ? ((AnimatedFrame) session.getFrame()).getAnimationTick() + "" : "-"));
+        }
+    }
+
+    @Override
+    public List<String> runTabComplete() {
+        return new LinkedList<String>();
+    }
+
+}
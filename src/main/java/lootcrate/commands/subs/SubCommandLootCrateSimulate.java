@@ -0,0 +1,138 @@
+package lootcrate.commands.subs;
+
+import com.google.common.collect.ImmutableMap;
+import lootcrate.LootCrate;
+import lootcrate.commands.SubCommand;
+import lootcrate.enums.Message;
+import lootcrate.enums.Permission;
+import lootcrate.enums.Placeholder;
+import lootcrate.objects.Crate;
+import lootcrate.objects.CrateItem;
+import lootcrate.objects.DropSimulation;
+import lootcrate.objects.LootTable;
+import lootcrate.utils.CommandUtils;
+import lootcrate.utils.ItemUtils;
+import lootcrate.utils.TabUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+
+public class SubCommandLootCrateSimulate extends SubCommand {
+    private static final int MAX_DRAWS = 100_000_000;
+
+    private final String[] args;
+    private final CommandSender sender;
+    private final LootCrate plugin;
+
+    /**
+     * Default constructor for any {@link SubCommand}
+     *
+     * @param plugin an instance of {@link LootCrate}
+     * @param sender the {@link CommandSender} which is executing this command
+     * @param args the following arguments in the command string
+     *
+     */
+    public SubCommandLootCrateSimulate(LootCrate plugin, CommandSender sender, String[] args) {
+        super(plugin, sender, args, Permission.COMMAND_LOOTCRATE_SIMULATE, Permission.COMMAND_LOOTCRATE_ADMIN);
+        this.plugin = plugin;
+        this.sender = sender;
+        this.args = args;
+    }
+
+    @Override
+    public void runSubCommand(boolean playerRequired) {
+        if (this.testPlayer(playerRequired))
+            return;
+        if (!this.testPermissions())
+            return;
+
+        if (args.length <= 2) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_USAGE, null);
+            return;
+        }
+
+        if (CommandUtils.tryParse(args[1]) == null || CommandUtils.tryParse(args[2]) == null
+                || CommandUtils.tryParse(args[2]) <= 0) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_USAGE, null);
+            return;
+        }
+
+        Crate crate = cacheManager.getCrateById(CommandUtils.tryParse(args[1]));
+        if (crate == null) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_NOT_FOUND,
+                    ImmutableMap.of(Placeholder.CRATE_ID, "" + CommandUtils.tryParse(args[1])));
+            return;
+        }
+
+        LootTable table = crateManager.getLootTable(crate);
+        if (table.isEmpty()) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_CHANCE_NOT_100,
+                    ImmutableMap.of(Placeholder.CRATE_ID, "" + crate.getId(), Placeholder.CRATE_NAME, crate.getName(),
+                            Placeholder.TOTAL_CRATE_CHANCE, "" + crate.getChanceCount()));
+            return;
+        }
+
+        int draws = Math.min(CommandUtils.tryParse(args[2]), MAX_DRAWS);
+        messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_START,
+                ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.DRAWS, draws + ""));
+
+        long start = System.nanoTime();
+        CompletableFuture.supplyAsync(() -> new DropSimulation(crateManager, table, draws).invoke(), ForkJoinPool.commonPool())
+                .whenComplete((tally, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error == null) {
+                        report(table, tally, (System.nanoTime() - start) / 1_000_000L);
+                        return;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    plugin.getLogger().log(Level.WARNING, "Simulation of crate " + crate.getId() + " failed", cause);
+                    messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_FAILED,
+                            ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.MESSAGE, String.valueOf(cause.getMessage())));
+                }));
+    }
+
+    private void report(LootTable table, DropSimulation.Tally tally, long millis) {
+        for (int i = 0; i < table.size(); i++) {
+            CrateItem item = table.getItem(i);
+            messageManager.sendNoPrefixMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_FORMAT,
+                    ImmutableMap.of(Placeholder.ITEM_ID, item.getId() + "",
+                            Placeholder.ITEM_NAME, ItemUtils.getDisplayOrTranslatedName(plugin, item.getItem()),
+                            Placeholder.ITEM_CHANCE, percent(table.getProbability(i)),
+                            Placeholder.OBSERVED_CHANCE, percent(tally.getObservedRate(i))));
+        }
+
+        messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SIMULATE_SUMMARY,
+                ImmutableMap.of(Placeholder.DRAWS, tally.getDraws() + "",
+                        Placeholder.ITEMS_PER_OPEN, String.format(Locale.ROOT, "%.3f", tally.getItemsPerOpen()),
+                        Placeholder.COMMAND_FREQUENCY, percent(tally.getCommandRate()),
+                        Placeholder.TIME, millis + ""));
+    }
+
+    private String percent(double rate) {
+        return String.format(Locale.ROOT, "%.4f", rate * 100);
+    }
+
+    @Override
+    public List<String> runTabComplete() {
+        List<String> list = new LinkedList<String>();
+
+        if (!sender.hasPermission(Permission.COMMAND_LOOTCRATE_SIMULATE.getKey())
+                && !sender.hasPermission(Permission.COMMAND_LOOTCRATE_ADMIN.getKey()))
+            return list;
+
+        if (args.length == 2) {
+            list.add("[CrateID]");
+            TabUtils.addCratesToList(list, cacheManager);
+        }
+        if (args.length == 3)
+            list.add("[Draws]");
+        return list;
+    }
+
+}
@@ -0,0 +1,58 @@
+package lootcrate.commands.subs;
+
+import lootcrate.LootCrate;
+import lootcrate.commands.SubCommand;
+import lootcrate.enums.Message;
+import lootcrate.enums.Permission;
+import lootcrate.managers.AnimationManager;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public class SubCommandLootCrateSkip extends SubCommand {
+    private final String[] args;
+    private final CommandSender sender;
+    private final LootCrate plugin;
+
+    /**
+     * Default constructor for any {@link SubCommand}
+     *
+     * @param plugin an instance of {@link LootCrate}
+     * @param sender the {@link CommandSender} which is executing this command
+     * @param args the following arguments in the command string
+     *
+     */
+    public SubCommandLootCrateSkip(LootCrate plugin, CommandSender sender, String[] args) {
+        super(plugin, sender, args, Permission.COMMAND_LOOTCRATE_SKIP, Permission.COMMAND_LOOTCRATE_ADMIN);
+        this.plugin = plugin;
+        this.sender = sender;
+        this.args = args;
+    }
+
+    @Override
+    public void runSubCommand(boolean playerRequired) {
+        if (this.testPlayer(playerRequired))
+            return;
+        if (!this.testPermissions())
+            return;
+
+        if (args.length != 1) {
+            messageManager.sendMessage(sender, Message.LOOTCRATE_COMMAND_SKIP_USAGE, null);
+            return;
+        }
+
+        Player p = (Player) sender;
+        AnimationManager animationManager = plugin.getManager(AnimationManager.class);
+        boolean skipping = !animationManager.isSkipping(p);
+        animationManager.setSkipping(p, skipping);
+        messageManager.sendMessage(sender, skipping ? Message.LOOTCRATE_COMMAND_SKIP_ENABLED : Message.LOOTCRATE_COMMAND_SKIP_DISABLED, null);
+    }
+
+    @Override
+    public List<String> runTabComplete() {
+        return new LinkedList<String>();
+    }
+
+}
@@ -3,9 +3,13 @@ package lootcrate.enums;
 public enum FileType {
 
     CRATES("crates.yml"),
+    CRATE_FOLDER("crates"),
+    CRATE_SNAPSHOT("crates.snapshot"),
     LOCATIONS("locations.yml"),
     KEYS("player_keys.yml"),
+    KEY_JOURNAL("player_keys.journal"),
     COOLDOWNS("cooldowns.yml"),
+    COOLDOWN_STORE("cooldowns.dat"),
     DEBUG("debug.txt"),
     LOG("log.txt");
 
@@ -54,11 +54,26 @@ public enum Message {
     LOOTCRATE_COMMAND_DELETE_USAGE("lootcrate-command-delete-usage"),
     LOOTCRATE_COMMAND_DELETE_SUCCESS("lootcrate-command-delete-success"),
     LOOTCRATE_COMMAND_OPTION_USAGE("lootcrate-command-option-usage"),
+    LOOTCRATE_COMMAND_OPEN_USAGE("lootcrate-command-open-usage"),
+    LOOTCRATE_COMMAND_SIMULATE_USAGE("lootcrate-command-simulate-usage"),
+    LOOTCRATE_COMMAND_SIMULATE_START("lootcrate-command-simulate-start"),
+    LOOTCRATE_COMMAND_SIMULATE_FORMAT("lootcrate-command-simulate-format"),
+    LOOTCRATE_COMMAND_SIMULATE_SUMMARY("lootcrate-command-simulate-summary"),
+    LOOTCRATE_COMMAND_SIMULATE_FAILED("lootcrate-command-simulate-failed"),
+    LOOTCRATE_COMMAND_SESSIONS_USAGE("lootcrate-command-sessions-usage"),
+    LOOTCRATE_COMMAND_SESSIONS_HEADER("lootcrate-command-sessions-header"),
+    LOOTCRATE_COMMAND_SESSIONS_FORMAT("lootcrate-command-sessions-format"),
+    LOOTCRATE_COMMAND_SKIP_USAGE("lootcrate-command-skip-usage"),
+    LOOTCRATE_COMMAND_SKIP_ENABLED("lootcrate-command-skip-enabled"),
+    LOOTCRATE_COMMAND_SKIP_DISABLED("lootcrate-command-skip-disabled"),
     MESSAGE_COMMAND_FORMAT("message-command-format"),
     MESSAGE_COMMAND_USAGE("message-command-usage"),
     LOOTCRATE_OPEN("lootcrate-open"),
     LOOTCRATE_COOLDOWN_IN_EFFECT("lootcrate-cooldown-in-effect"),
     LOOTCRATE_INCORRECT_KEY("lootcrate-wrong-key"),
+    LOOTCRATE_OPEN_BULK_NO_KEYS("lootcrate-open-bulk-no-keys"),
+    LOOTCRATE_OPEN_BULK_NO_ITEMS("lootcrate-open-bulk-no-items"),
+    LOOTCRATE_OPEN_BULK_SUMMARY("lootcrate-open-bulk-summary"),
 
     LOOTCRATE_CHANGE_CRATE_NAME("lootcrate-change-crate-name"),
     LOOTCRATE_CHANGE_CRATE_MESSAGE("lootcrate-change-crate-message"),
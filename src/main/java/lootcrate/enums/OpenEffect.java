@@ -0,0 +1,90 @@
+package lootcrate.enums;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.Sound;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Visual effects played above a crate when it is opened, by their name in the
+ * "effect" section of config.yml
+ */
+public enum OpenEffect {
+    EXPLOSION(Particle.EXPLOSION, 1, 0, 0, "explosion"),
+    THUNDER(Particle.EXPLOSION, 3, 0.5, 0.1, "thunder", "lightning") {
+        @Override
+        public void play(Location l) {
+            super.play(l);
+            l.getWorld().playSound(l, Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1.0f, 1.0f);
+            l.getWorld().playSound(l, Sound.ENTITY_LIGHTNING_BOLT_IMPACT, 1.0f, 1.0f);
+        }
+    },
+    ENCHANT(Particle.ENCHANT, 50, 1, 0.5, "enchant"),
+    FLAME(Particle.FLAME, 30, 0.5, 0.01, "flame"),
+    HEART(Particle.HEART, 10, 0.5, 0.01, "heart"),
+    TOTEM(Particle.TOTEM_OF_UNDYING, 20, 0.5, 0.01, "totem"),
+    NOTE(Particle.NOTE, 15, 0.5, 1, "note"),
+    SMOKE(Particle.SMOKE, 20, 0.5, 0.01, "smoke"),
+    CRIT(Particle.CRIT, 25, 0.5, 0.01, "crit"),
+    HAPPY_VILLAGER(Particle.HAPPY_VILLAGER, 15, 0.5, 0.01, "happy_villager"),
+    ANGRY_VILLAGER(Particle.ANGRY_VILLAGER, 10, 0.5, 0.01, "angry_villager"),
+    CLOUD(Particle.CLOUD, 20, 0.5, 0.01, "cloud"),
+    LAVA(Particle.LAVA, 10, 0.5, 0.01, "lava"),
+    DRIP_LAVA(Particle.DRIPPING_LAVA, 10, 0.5, 0.01, "drip_lava"),
+    DRIP_WATER(Particle.DRIPPING_WATER, 10, 0.5, 0.01, "drip_water"),
+    PORTAL(Particle.PORTAL, 40, 1, 0.2, "portal"),
+    DRAGON_BREATH(Particle.DRAGON_BREATH, 20, 0.5, 0.01, "dragon_breath"),
+    SPIT(Particle.SPIT, 10, 0.5, 0.01, "spit"),
+    SNEEZE(Particle.SNEEZE, 10, 0.5, 0.01, "sneeze"),
+    FIREWORK(Particle.FIREWORK, 30, 0.5, 0.01, "firework"),
+    ASH(Particle.ASH, 20, 0.5, 0.01, "ash"),
+    SOUL(Particle.SOUL, 20, 0.5, 0.01, "soul"),
+    SOUL_FIRE(Particle.SOUL_FIRE_FLAME, 20, 0.5, 0.01, "soul_fire"),
+    SNOWFLAKE(Particle.SNOWFLAKE, 20, 0.5, 0.01, "snowflake"),
+    SLIME(Particle.ITEM_SLIME, 10, 0.5, 0.01, "slime"),
+    BUBBLE(Particle.BUBBLE, 15, 0.5, 0.01, "bubble");
+
+    private static final Map<String, OpenEffect> BY_NAME = new HashMap<String, OpenEffect>();
+
+    static {
+        for (OpenEffect effect : values())
+            for (String name : effect.names)
+                BY_NAME.put(name, effect);
+    }
+
+    private final Particle particle;
+    private final int count;
+    private final double offset;
+    private final double extra;
+    private final String[] names;
+
+    OpenEffect(Particle particle, int count, double offset, double extra, String... names) {
+        this.particle = particle;
+        this.count = count;
+        this.offset = offset;
+        this.extra = extra;
+        this.names = names;
+    }
+
+    /**
+     * Plays the effect
+     *
+     * @param l Location to play the effect at, above the crate
+     */
+    public void play(Location l) {
+        l.getWorld().spawnParticle(particle, l, count, offset, offset, offset, extra);
+    }
+
+    /**
+     * Gets an effect by its name in config.yml, ignoring case
+     *
+     * @param name Name of the effect
+     * @return the effect, or null if there is none by that name
+     */
+    public static OpenEffect fromName(String name) {
+        return name == null ? null : BY_NAME.get(name.toLowerCase(Locale.ROOT));
+    }
+}
@@ -8,7 +8,12 @@ public enum Option {
     PRIORITIZE_INVENTORY_OVER_CLAIM("prioritize-inventory-over-claim", DataType.BOOLEAN),
     JOIN_KEY_NOTIFICATION("join-key-notification", DataType.BOOLEAN),
     BROADCAST_ITEM_WIN_ENABLED("broadcast-item-win-enabled", DataType.BOOLEAN),
-    BROADCAST_ITEM_WIN_MESSAGE("broadcast-item-win-message", DataType.STRING);
+    BROADCAST_ITEM_WIN_MESSAGE("broadcast-item-win-message", DataType.STRING),
+    STORAGE_TYPE("storage-type", DataType.STRING),
+    AMBIENT_PARTICLE_BUDGET("ambient-particle-budget", DataType.INTEGER),
+    AMBIENT_EFFECT_DISTANCE("ambient-effect-distance", DataType.INTEGER),
+    ANIMATION_TICK_BUDGET("animation-tick-budget", DataType.INTEGER),
+    ANIMATION_POOL_SIZE("animation-pool-size", DataType.INTEGER);
 
     String key;
     DataType type;
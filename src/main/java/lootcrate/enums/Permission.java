@@ -18,6 +18,10 @@ public enum Permission {
     COMMAND_LOOTCRATE_GUI("lootcrate.command.lootcrate.gui"),
     COMMAND_LOOTCRATE_PREVIEW("lootcate.command.lootcrate.preview"),
     COMMAND_LOOTCRATE_CLAIM("lootcrate.command.lootcrate.claim"),
+    COMMAND_LOOTCRATE_OPEN("lootcrate.command.lootcrate.open"),
+    COMMAND_LOOTCRATE_SIMULATE("lootcrate.command.lootcrate.simulate"),
+    COMMAND_LOOTCRATE_SESSIONS("lootcrate.command.lootcrate.sessions"),
+    COMMAND_LOOTCRATE_SKIP("lootcrate.command.lootcrate.skip"),
     COMMAND_LOOTCRATE_ADMIN("lootcrate.command.*"),
     LOOTCRATE_COOLDOWN("lootcrate.cooldown."),
     LOOTCRATE_COOLDOWN_ADMIN("lootcrate.cooldown.*"),
@@ -23,10 +23,17 @@ public enum Placeholder {
     ENCHANTMENT_NAME("enchantment_name"),
     VALUE("value"),
     KEY_AMOUNT("key_amount"),
+    ITEM_AMOUNT("item_amount"),
+    DRAWS("draws"),
+    OBSERVED_CHANCE("observed_chance"),
+    ITEMS_PER_OPEN("items_per_open"),
+    COMMAND_FREQUENCY("command_frequency"),
     TIME("time"),
     KNOCKBACK("knockback"),
     COOLDOWN("cooldown"),
-    SOUND_NAME("sound_name");
+    SOUND_NAME("sound_name"),
+    FRAME_NAME("frame_name"),
+    ANIMATION_TICK("animation_tick");
 
     String key;
 
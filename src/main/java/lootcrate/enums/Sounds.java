@@ -1,7 +1,10 @@
 package lootcrate.enums;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public enum Sounds {
     ENTITY__ALLAY__AMBIENT_WITH_ITEM("entity.allay.ambient_with_item"),
@@ -1656,6 +1659,13 @@ public enum Sounds {
     ENTITY__PLAYER__DEATH("entity.player.death"),
     BLOCK__WOODEN_TRAPDOOR__OPEN("block.wooden_trapdoor.open");
 
+    private static final Map<String, Sounds> BY_KEY = new HashMap<String, Sounds>();
+
+    static {
+        for(Sounds sounds : values())
+            BY_KEY.putIfAbsent(sounds.getKey().toLowerCase(Locale.ROOT), sounds);
+    }
+
     private String key;
 
     Sounds(String key) {
@@ -1663,10 +1673,8 @@ public enum Sounds {
     }
 
     public static Sounds fromKey(String sound) {
-        for(Sounds sounds : values())
-            if(sounds.getKey().equalsIgnoreCase(sound))
-                return sounds;
-        return Sounds.ENTITY__FIREWORK_ROCKET__SHOOT;
+        Sounds sounds = sound == null ? null : BY_KEY.get(sound.toLowerCase(Locale.ROOT));
+        return sounds == null ? Sounds.ENTITY__FIREWORK_ROCKET__SHOOT : sounds;
     }
 
     public String getKey() {
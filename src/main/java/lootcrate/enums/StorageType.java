@@ -0,0 +1,21 @@
+package lootcrate.enums;
+
+public enum StorageType {
+    YAML, SQLITE, H2;
+
+    /**
+     * Gets the storage type of the given name, ignoring case
+     *
+     * @param name Name of the storage type
+     * @return The storage type, or YAML if the name is unknown
+     */
+    public static StorageType fromName(String name) {
+        if (name == null)
+            return YAML;
+        for (StorageType value : values()) {
+            if (value.name().equalsIgnoreCase(name.trim()))
+                return value;
+        }
+        return YAML;
+    }
+}
@@ -3,13 +3,11 @@ package lootcrate.events.listeners;
 import lootcrate.LootCrate;
 import lootcrate.enums.Message;
 import lootcrate.events.custom.CrateAccessEvent;
-import lootcrate.managers.CacheManager;
 import lootcrate.managers.LocationManager;
 import lootcrate.managers.MessageManager;
 import lootcrate.objects.Crate;
 import lootcrate.utils.ObjUtils;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -20,12 +18,12 @@ import org.bukkit.inventory.EquipmentSlot;
 public class LootCrateInteractListener implements Listener {
     private final LootCrate plugin;
     private final MessageManager messageManager;
-    private final CacheManager cacheManager;
+    private final LocationManager locationManager;
 
     public LootCrateInteractListener(LootCrate plugin) {
         this.plugin = plugin;
         this.messageManager = plugin.getManager(MessageManager.class);
-        this.cacheManager = plugin.getManager(CacheManager.class);
+        this.locationManager = plugin.getManager(LocationManager.class);
     }
 
     @EventHandler
@@ -39,9 +37,9 @@ public class LootCrateInteractListener implements Listener {
         if (p.getInventory().getItemInMainHand() == null)
             return;
 
-        Location clickedBlockLocation = e.getClickedBlock().getLocation();
+        Crate crate = locationManager.getCrateAt(e.getClickedBlock());
 
-        if (!isCrate(clickedBlockLocation)) {
+        if (crate == null) {
             if (ObjUtils.isKey(plugin, p.getInventory().getItemInMainHand())) {
                 e.setCancelled(true);
                 messageManager.sendMessage(p, Message.CANNOT_PLACE_LOOTKEY, null);
@@ -52,9 +50,6 @@ public class LootCrateInteractListener implements Listener {
 
         e.setCancelled(true);
 
-        Crate crate = cacheManager.getCrateById(
-                plugin.getManager(LocationManager.class).getLocationList().get(e.getClickedBlock().getLocation()).getId());
-
         CrateAccessEvent event = new CrateAccessEvent(crate, p, e.getClickedBlock().getLocation(), e.getAction());
         Bukkit.getPluginManager().callEvent(event);
 
@@ -62,8 +57,4 @@ public class LootCrateInteractListener implements Listener {
             e.setCancelled(true);
 
     }
-
-    private boolean isCrate(Location l) {
-        return     plugin.getManager(LocationManager.class).getLocationList().containsKey(l);
-    }
 }
@@ -35,9 +35,9 @@ public class PlayerJoinListener implements Listener {
         if (optionManager.valueOf(Option.JOIN_KEY_NOTIFICATION)){
             if(!keyCacheManager.hasKeys(p.getUniqueId()))
                 return;
-            else if(keyCacheManager.convertIntToCrate(p.getUniqueId()).isEmpty()) return;
+            else if(keyCacheManager.count(p.getUniqueId()) == 0) return;
             else
-                messageManager.sendMessage(p, Message.JOIN_KEY_NOTIFICATION,  ImmutableMap.of(Placeholder.KEY_AMOUNT, keyCacheManager.convertIntToCrate(p.getUniqueId()).size() + ""));
+                messageManager.sendMessage(p, Message.JOIN_KEY_NOTIFICATION,  ImmutableMap.of(Placeholder.KEY_AMOUNT, keyCacheManager.count(p.getUniqueId()) + ""));
 
         }
 
@@ -0,0 +1,27 @@
+package lootcrate.events.listeners;
+
+import lootcrate.LootCrate;
+import lootcrate.managers.LocationManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public class WorldLoadListener implements Listener {
+    private final LocationManager locationManager;
+
+    public WorldLoadListener(LootCrate plugin) {
+        this.locationManager = plugin.getManager(LocationManager.class);
+    }
+
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent e) {
+        locationManager.bindWorld(e.getWorld());
+    }
+
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent e) {
+        if (!e.isCancelled())
+            locationManager.unbindWorld(e.getWorld());
+    }
+}
@@ -4,11 +4,9 @@ import com.google.common.collect.ImmutableMap;
 import lootcrate.LootCrate;
 import lootcrate.enums.*;
 import lootcrate.events.custom.CrateOpenEvent;
-import lootcrate.gui.frames.animations.CrateCSGOAnimationFrame;
-import lootcrate.gui.frames.animations.CrateRandomGlassAnimationFrame;
-import lootcrate.gui.frames.animations.CrateRemovingItemAnimationFrame;
 import lootcrate.gui.frames.types.AnimatedFrame;
 import lootcrate.managers.*;
+import lootcrate.objects.AnimationTimeline;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateOption;
 import lootcrate.utils.CommandUtils;
@@ -35,6 +33,12 @@ public class CrateOpenListener implements Listener {
         Crate crate = e.getCrate();
         ItemStack item = p.getInventory().getItemInMainHand();
 
+        // shift right click opens every key the player has for this crate at once
+        if (p.isSneaking()) {
+            plugin.getManager(CrateManager.class).openBulk(crate, p, Integer.MAX_VALUE);
+            return;
+        }
+
         // If config allows virtual keys, check if they have the key in the cache
         if ((boolean) plugin.getManager(OptionManager.class).valueOf(Option.ALLOW_VIRTUAL_KEYS) && plugin.getManager(KeyCacheManager.class).contains(p.getUniqueId(), crate)) {
             if(isCooldownInEffect(crate, p)) return;
@@ -97,25 +101,18 @@ public class CrateOpenListener implements Listener {
     }
 
     private void openAnimation(Crate crate, Player p) {
-        AnimatedFrame frame = null;
+        AnimationManager animationManager = plugin.getManager(AnimationManager.class);
         CrateOption opt = crate.getOption(CrateOptionType.ANIMATION_STYLE);
-        AnimationStyle type = AnimationStyle.valueOf((String) opt.getValue());
-        switch (type) {
-            case CSGO:
-                frame = new CrateCSGOAnimationFrame(plugin, p, crate);
-                break;
-            case REMOVING_ITEM:
-                frame = new CrateRemovingItemAnimationFrame(plugin, p, crate);
-                break;
-            case NONE:
-                plugin.getManager(CrateManager.class).giveReward(plugin.getManager(CrateManager.class).getRandomItem(crate), p, crate.getName(), crate);
-                return;
-            default:
-                frame = new CrateRandomGlassAnimationFrame(plugin, p, crate);
-                break;
-
+        AnimationTimeline timeline = animationManager.getTimeline((String) opt.getValue());
+        // an unknown style plays the default animation, as before custom animations
+        if (timeline == null && !AnimationStyle.NONE.name().equals(opt.getValue()))
+            timeline = animationManager.getTimeline(AnimationStyle.RANDOM_GLASS.name());
+        if (timeline == null || animationManager.isSkipping(p)) {
+            plugin.getManager(CrateManager.class).giveReward(plugin.getManager(CrateManager.class).getRandomItem(crate), p, crate.getName(), crate);
+            return;
         }
 
+        AnimatedFrame frame = animationManager.acquire(crate, timeline, p);
         plugin.getManager(InventoryManager.class).openFrame(p, frame);
 
         frame.showAnimation();
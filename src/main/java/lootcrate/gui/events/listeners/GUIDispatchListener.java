@@ -0,0 +1,53 @@
+package lootcrate.gui.events.listeners;
+
+import lootcrate.LootCrate;
+import lootcrate.gui.frames.types.BaseFrame;
+import lootcrate.managers.AnimationManager;
+import lootcrate.managers.InventoryManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Routes inventory events to the frame holding the inventory, frames are not
+ * registered as listeners themselves. Also completes the animation and ends
+ * the frame session of players that leave.
+ */
+public class GUIDispatchListener implements Listener {
+
+    private final LootCrate plugin;
+
+    public GUIDispatchListener(LootCrate plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler
+    public void onClick(InventoryClickEvent e) {
+        if (e.getInventory().getHolder() instanceof BaseFrame)
+            ((BaseFrame) e.getInventory().getHolder()).handleClick(e);
+    }
+
+    @EventHandler
+    public void onDrag(InventoryDragEvent e) {
+        if (e.getInventory().getHolder() instanceof BaseFrame)
+            ((BaseFrame) e.getInventory().getHolder()).handleDrag(e);
+    }
+
+    @EventHandler
+    public void onClose(InventoryCloseEvent e) {
+        if (!(e.getInventory().getHolder() instanceof BaseFrame) || !(e.getPlayer() instanceof Player))
+            return;
+        plugin.getManager(InventoryManager.class).frameClosed((Player) e.getPlayer(), (BaseFrame) e.getInventory().getHolder());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        plugin.getManager(AnimationManager.class).complete(e.getPlayer().getUniqueId());
+        plugin.getManager(InventoryManager.class).endSession(e.getPlayer().getUniqueId());
+    }
+
+}
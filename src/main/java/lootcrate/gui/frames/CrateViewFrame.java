@@ -13,14 +13,12 @@ import lootcrate.managers.InventoryManager;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateItem;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.awt.*;
 import java.util.List;
 
-public class CrateViewFrame extends ExtendedFrame implements Listener {
+public class CrateViewFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -38,8 +36,6 @@ public class CrateViewFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -52,11 +48,6 @@ public class CrateViewFrame extends ExtendedFrame implements Listener {
         }
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     @Override
     public void nextPage() {
         if(usableSize - getUsableItems().size() > 0) return;
@@ -93,7 +84,7 @@ public class CrateViewFrame extends ExtendedFrame implements Listener {
     }
 
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         Player p = e.getPlayer();
         e.setCancelled(true);
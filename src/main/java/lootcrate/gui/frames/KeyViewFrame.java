@@ -13,12 +13,13 @@ import lootcrate.objects.Crate;
 import lootcrate.utils.ItemUtils;
 import lootcrate.utils.ObjUtils;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
+import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-public class KeyViewFrame extends ExtendedFrame implements Listener {
+public class KeyViewFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final GUIItem claimAll;
@@ -32,28 +33,20 @@ public class KeyViewFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
     public void generateFrame() {
         int index = 0;
-        for (Crate crate : plugin.getManager(KeyCacheManager.class).convertIntToCrate(player.getUniqueId())) {
+        for (Map.Entry<Crate, Integer> keys : getKeys()) {
             if (index < getUsableSize())
-                if(crate != null)
-                    this.setItem(index, new GUIItem(index, ItemUtils.addCrateID(plugin, crate.getKey().getItem(), crate.getId())));
+                this.setItem(index, keyItem(index, keys));
             index++;
         }
         this.setItem(usableSize, claimAll);
     }
 
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     @Override
     public void nextPage() {
         if (usableSize - getUsableItems().size() > 0) return;
@@ -62,10 +55,10 @@ public class KeyViewFrame extends ExtendedFrame implements Listener {
 
         int itemIndex = (page * usableSize) - usableSize;
         int index = 0;
-        List<Crate> crates = plugin.getManager(KeyCacheManager.class).convertIntToCrate(player.getUniqueId());
+        List<Map.Entry<Crate, Integer>> keys = getKeys();
         for (int i = 0; i < getUsableSize(); i++) {
-            if (index < getUsableSize() && crates.size() > itemIndex)
-                this.setItem(index, new GUIItem(index, ItemUtils.addCrateID(plugin, crates.get(itemIndex).getKey().getItem(), crates.get(itemIndex).getId())));
+            if (index < getUsableSize() && keys.size() > itemIndex)
+                this.setItem(index, keyItem(index, keys.get(itemIndex)));
             index++;
             itemIndex++;
         }
@@ -79,17 +72,31 @@ public class KeyViewFrame extends ExtendedFrame implements Listener {
 
         int itemIndex = (page * usableSize) - usableSize;
         int index = 0;
-        List<Crate> crates = plugin.getManager(KeyCacheManager.class).convertIntToCrate(player.getUniqueId());
+        List<Map.Entry<Crate, Integer>> keys = getKeys();
         for (int i = 0; i < getUsableSize(); i++) {
-            if (index < getUsableSize() && crates.size() > itemIndex)
-                this.setItem(index, new GUIItem(index, ItemUtils.addCrateID(plugin, crates.get(itemIndex).getKey().getItem(), crates.get(itemIndex).getId())));
+            if (index < getUsableSize() && keys.size() > itemIndex)
+                this.setItem(index, keyItem(index, keys.get(itemIndex)));
             index++;
             itemIndex++;
         }
     }
 
+    /**
+     * Gets the keys of the player, one entry per crate with the amount held
+     */
+    private List<Map.Entry<Crate, Integer>> getKeys() {
+        return new ArrayList<>(plugin.getManager(KeyCacheManager.class).getKeyCounts(player.getUniqueId()).entrySet());
+    }
+
+    private GUIItem keyItem(int index, Map.Entry<Crate, Integer> keys) {
+        Crate crate = keys.getKey();
+        ItemStack item = ItemUtils.addCrateID(plugin, crate.getKey().getItem(), crate.getId()).clone();
+        item.setAmount(Math.min(keys.getValue(), item.getMaxStackSize()));
+        return new GUIItem(index, item);
+    }
+
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         Player p = e.getPlayer();
         if (!e.sameFrame(this))
@@ -99,10 +106,11 @@ public class KeyViewFrame extends ExtendedFrame implements Listener {
 
         if(e.getItem() == claimAll)
         {
-            for(Crate c : plugin.getManager(KeyCacheManager.class).getCratesByUUID(player.getUniqueId()))
+            for(Map.Entry<Crate, Integer> keys : getKeys())
             {
-                claimKey(c);
+                if(!claimKeys(keys.getKey(), keys.getValue())) break;
             }
+            refresh();
             return;
         }
 
@@ -110,22 +118,37 @@ public class KeyViewFrame extends ExtendedFrame implements Listener {
         int id = ItemUtils.getIDFromItem(plugin, e.getItem().getItemStack());
         Crate crate = plugin.getManager(CacheManager.class).getCrateById(id);
         if(crate == null) return;
-        claimKey(crate);
+        if(claimKeys(crate, 1)) refresh();
 
     }
 
-    private void claimKey(Crate crate)
+    /**
+     * Moves keys to a crate from the player's claim into their inventory, as many
+     * as fit
+     *
+     * @return false if the inventory is full
+     */
+    private boolean claimKeys(Crate crate, int amount)
     {
         if(player.getInventory().firstEmpty() == -1)
         {
             plugin.getManager(MessageManager.class).sendMessage(player, Message.LOOTCRATE_COMMAND_CLAIM_FULL_INVENTORY,
                     ImmutableMap.of(Placeholder.CRATE_ID, crate.getId() + "", Placeholder.CRATE_NAME, crate.getName(), Placeholder.PLAYER_NAME, player.getName()));
-            return;
+            return false;
         }
-        player.getInventory().addItem(ObjUtils.assignCrateToKey(plugin, crate));
+        ItemStack keys = ObjUtils.assignCrateToKey(plugin, crate).clone();
+        keys.setAmount(amount);
+        int left = 0;
+        for(ItemStack leftover : player.getInventory().addItem(keys).values())
+            left += leftover.getAmount();
         plugin.getManager(MessageManager.class).sendMessage(player, Message.LOOTCRATE_COMMAND_CLAIM_SUCCESS,
                 ImmutableMap.of(Placeholder.CRATE_ID, crate.getId() + "", Placeholder.CRATE_NAME, crate.getName()));
-        plugin.getManager(KeyCacheManager.class).remove(player.getUniqueId(), crate);
+        plugin.getManager(KeyCacheManager.class).remove(player.getUniqueId(), crate, amount - left);
+        return left == 0;
+    }
+
+    private void refresh()
+    {
         plugin.getManager(InventoryManager.class).closeFrame(player, this);
         plugin.getManager(InventoryManager.class).openFrame(player, new KeyViewFrame(plugin, player));
     }
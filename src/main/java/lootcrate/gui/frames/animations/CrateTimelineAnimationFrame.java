@@ -0,0 +1,89 @@
+package lootcrate.gui.frames.animations;
+
+import lootcrate.LootCrate;
+import lootcrate.gui.events.custom.GUIItemClickEvent;
+import lootcrate.gui.frames.types.AnimatedFrame;
+import lootcrate.gui.items.GUIItem;
+import lootcrate.managers.CrateManager;
+import lootcrate.objects.AnimationTimeline;
+import lootcrate.objects.Crate;
+import lootcrate.objects.CrateItem;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+
+/**
+ * Plays an {@link AnimationTimeline}: the rewards and the order of the path are
+ * rolled for each opening, then every tick copies the compiled slot updates of
+ * that tick into the inventory.
+ */
+public class CrateTimelineAnimationFrame extends AnimatedFrame {
+
+    private final AnimationTimeline timeline;
+    private final AnimationTimeline.SlotWriter writer = this::setItem;
+    private final GUIItem[] rewards;
+    private final int[] path;
+
+    public CrateTimelineAnimationFrame(LootCrate plugin, Player p, Crate crate, AnimationTimeline timeline) {
+        super(plugin, p, crate, timeline.getSize());
+
+        this.timeline = timeline;
+        this.rewards = new GUIItem[timeline.getRewardCount()];
+        this.path = new int[timeline.getPathLength()];
+
+        roll();
+    }
+
+    @Override
+    protected void roll() {
+        List<CrateItem> items = plugin.getManager(CrateManager.class).getRandomItems(crate, rewards.length);
+        items.set(timeline.getWinnerIndex(), winner);
+        for (int i = 0; i < rewards.length; i++)
+            rewards[i] = rewardItem(items.get(i));
+        timeline.rollPath(path);
+
+        generateFrame();
+    }
+
+    @Override
+    public void generateFrame() {
+        timeline.play(-1, path, rewards, writer);
+    }
+
+    /**
+     * Plays the updates of the tick, gives the winner at the end of the timeline
+     * and closes once it was shown long enough
+     */
+    @Override
+    protected boolean advance(int tick) {
+        timeline.play(tick, path, rewards, writer);
+        if (tick == timeline.getEnd())
+            giveReward();
+        if (tick >= timeline.getClose()) {
+            closeFrame(player, getAnimatedFrame());
+            return false;
+        }
+        return true;
+    }
+
+    public AnimationTimeline getTimeline() {
+        return timeline;
+    }
+
+    @Override
+    public void onGUIItemClick(GUIItemClickEvent e) {
+        if (!e.sameFrame(this))
+            return;
+        e.setCancelled(true);
+    }
+
+    @Override
+    public void nextPage() {
+
+    }
+
+    @Override
+    public void previousPage() {
+
+    }
+}
@@ -10,13 +10,11 @@ import lootcrate.objects.Crate;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 
-public class CrateCreationFrame extends ExtendedFrame implements Listener {
+public class CrateCreationFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final List<Crate> crates;
@@ -29,8 +27,6 @@ public class CrateCreationFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -39,11 +35,6 @@ public class CrateCreationFrame extends ExtendedFrame implements Listener {
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -54,7 +45,7 @@ public class CrateCreationFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -9,11 +9,9 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateItemCreationAmountFrame extends ExtendedFrame implements Listener {
+public class CrateItemCreationAmountFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -27,8 +25,6 @@ public class CrateItemCreationAmountFrame extends ExtendedFrame implements Liste
         this.title = ChatColor.GREEN + "" + crateItem.getId();
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -38,11 +34,6 @@ public class CrateItemCreationAmountFrame extends ExtendedFrame implements Liste
         fillInformation();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -83,7 +74,7 @@ public class CrateItemCreationAmountFrame extends ExtendedFrame implements Liste
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -9,14 +9,12 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
-public class CrateItemCreationChanceFrame extends ExtendedFrame implements Listener {
+public class CrateItemCreationChanceFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -32,8 +30,6 @@ public class CrateItemCreationChanceFrame extends ExtendedFrame implements Liste
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -43,11 +39,6 @@ public class CrateItemCreationChanceFrame extends ExtendedFrame implements Liste
         fillInformation();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -96,7 +87,7 @@ public class CrateItemCreationChanceFrame extends ExtendedFrame implements Liste
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -14,13 +14,11 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 
-public class CrateItemCreationCommandsFrame extends ExtendedFrame implements Listener {
+public class CrateItemCreationCommandsFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -37,8 +35,6 @@ public class CrateItemCreationCommandsFrame extends ExtendedFrame implements Lis
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -47,11 +43,6 @@ public class CrateItemCreationCommandsFrame extends ExtendedFrame implements Lis
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -74,7 +65,7 @@ public class CrateItemCreationCommandsFrame extends ExtendedFrame implements Lis
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -13,11 +13,9 @@ import lootcrate.objects.CrateOption;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateItemCreationDisplayFrame extends ExtendedFrame implements Listener {
+public class CrateItemCreationDisplayFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -32,8 +30,6 @@ public class CrateItemCreationDisplayFrame extends ExtendedFrame implements List
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -42,11 +38,6 @@ public class CrateItemCreationDisplayFrame extends ExtendedFrame implements List
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -70,7 +61,7 @@ public class CrateItemCreationDisplayFrame extends ExtendedFrame implements List
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -10,11 +10,9 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateItemCreationFrame extends ExtendedFrame implements Listener {
+public class CrateItemCreationFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -29,8 +27,6 @@ public class CrateItemCreationFrame extends ExtendedFrame implements Listener {
         this.title = ChatColor.GREEN + "" + crateItem.getId();
 
         generateFrame();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -39,11 +35,6 @@ public class CrateItemCreationFrame extends ExtendedFrame implements Listener {
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -61,7 +52,7 @@ public class CrateItemCreationFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -10,11 +10,9 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateItemCreationMaterialFrame extends BaseFrame implements Listener, InputAllowed {
+public class CrateItemCreationMaterialFrame extends BaseFrame implements InputAllowed {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -34,8 +32,6 @@ public class CrateItemCreationMaterialFrame extends BaseFrame implements Listene
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -45,11 +41,6 @@ public class CrateItemCreationMaterialFrame extends BaseFrame implements Listene
         setRewardItem();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -75,7 +66,7 @@ public class CrateItemCreationMaterialFrame extends BaseFrame implements Listene
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
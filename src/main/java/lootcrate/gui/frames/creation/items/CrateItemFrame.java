@@ -14,12 +14,10 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 
 import java.util.List;
 
-public class CrateItemFrame extends ExtendedFrame implements Listener {
+public class CrateItemFrame extends ExtendedFrame {
 
     private static final Material BACKGROUND = Material.WHITE_STAINED_GLASS_PANE;
     private final LootCrate plugin;
@@ -33,8 +31,6 @@ public class CrateItemFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -43,11 +39,6 @@ public class CrateItemFrame extends ExtendedFrame implements Listener {
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillItems() {
@@ -81,7 +72,7 @@ public class CrateItemFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         Player p = e.getPlayer();
 
@@ -10,11 +10,9 @@ import lootcrate.objects.CrateItem;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateItemMainMenuFrame extends ExtendedFrame implements Listener {
+public class CrateItemMainMenuFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -27,8 +25,6 @@ public class CrateItemMainMenuFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -37,11 +33,6 @@ public class CrateItemMainMenuFrame extends ExtendedFrame implements Listener {
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -52,7 +43,7 @@ public class CrateItemMainMenuFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
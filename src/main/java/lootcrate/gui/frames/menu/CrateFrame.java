@@ -12,11 +12,9 @@ import lootcrate.managers.CustomizationManager;
 import lootcrate.objects.Crate;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateFrame extends BaseFrame implements Listener {
+public class CrateFrame extends BaseFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -27,10 +25,8 @@ public class CrateFrame extends BaseFrame implements Listener {
         this.plugin = plugin;
         this.crate = crate;
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -39,11 +35,6 @@ public class CrateFrame extends BaseFrame implements Listener {
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
     // methods
 
@@ -64,7 +55,7 @@ public class CrateFrame extends BaseFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
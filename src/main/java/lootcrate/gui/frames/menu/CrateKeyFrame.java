@@ -12,11 +12,9 @@ import lootcrate.utils.ObjUtils;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateKeyFrame extends BaseFrame implements Listener, InputAllowed {
+public class CrateKeyFrame extends BaseFrame implements InputAllowed {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -27,10 +25,8 @@ public class CrateKeyFrame extends BaseFrame implements Listener, InputAllowed {
         this.plugin = plugin;
         this.crate = crate;
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -39,11 +35,6 @@ public class CrateKeyFrame extends BaseFrame implements Listener, InputAllowed {
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillOptions() {
@@ -58,7 +49,7 @@ public class CrateKeyFrame extends BaseFrame implements Listener, InputAllowed {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         Player p = e.getPlayer();
 
@@ -13,13 +13,11 @@ import lootcrate.utils.ItemUtils;
 import org.bukkit.ChatColor;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 
-public class CrateListFrame extends ExtendedFrame implements Listener {
+public class CrateListFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final List<Crate> crates;
@@ -32,8 +30,6 @@ public class CrateListFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -42,11 +38,6 @@ public class CrateListFrame extends ExtendedFrame implements Listener {
         fillCrates();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     private void fillCrates() {
@@ -59,7 +50,7 @@ public class CrateListFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
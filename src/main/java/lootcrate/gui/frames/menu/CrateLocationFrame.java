@@ -1,7 +1,6 @@
 package lootcrate.gui.frames.menu;
 
 import lootcrate.LootCrate;
-import lootcrate.gui.events.custom.GUIItemClickEvent;
 import lootcrate.gui.frames.menu.option.*;
 import lootcrate.gui.frames.types.BaseFrame;
 import lootcrate.gui.items.GUIItem;
@@ -26,10 +25,8 @@ public class CrateLocationFrame extends BaseFrame {
         this.crate = crate;
         this.p = p;
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -49,11 +46,6 @@ public class CrateLocationFrame extends BaseFrame {
         this.openFrame(player, new CrateFrame(plugin, player, crate));
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
 
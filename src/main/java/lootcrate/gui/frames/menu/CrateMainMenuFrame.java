@@ -12,13 +12,11 @@ import lootcrate.managers.CustomizationManager;
 import lootcrate.objects.Crate;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 
-public class CrateMainMenuFrame extends ExtendedFrame implements Listener {
+public class CrateMainMenuFrame extends ExtendedFrame {
 
     private final LootCrate plugin;
     private final List<Crate> crates;
@@ -31,8 +29,6 @@ public class CrateMainMenuFrame extends ExtendedFrame implements Listener {
 
         generateFrame();
         generateNavigation();
-        registerItems();
-        registerFrame();
     }
 
     @Override
@@ -41,11 +37,6 @@ public class CrateMainMenuFrame extends ExtendedFrame implements Listener {
         fillItems();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
 
 
     private void fillItems()
@@ -56,7 +47,7 @@ public class CrateMainMenuFrame extends ExtendedFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
         {
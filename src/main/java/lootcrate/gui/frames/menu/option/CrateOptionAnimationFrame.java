@@ -6,37 +6,34 @@ import lootcrate.enums.CrateOptionType;
 import lootcrate.gui.events.custom.GUIItemClickEvent;
 import lootcrate.gui.frames.types.BaseFrame;
 import lootcrate.gui.items.GUIItem;
+import lootcrate.managers.AnimationManager;
 import lootcrate.managers.CacheManager;
 import lootcrate.managers.CustomizationManager;
+import lootcrate.objects.AnimationTimeline;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateOption;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class CrateOptionAnimationFrame extends BaseFrame implements Listener {
+public class CrateOptionAnimationFrame extends BaseFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
-    private final Map<AnimationStyle, GUIItem> styles;
+    private final Map<String, GUIItem> styles;
 
     public CrateOptionAnimationFrame(LootCrate plugin, Player p, Crate crate) {
         super(plugin, p, crate.getName());
 
         this.plugin = plugin;
         this.crate = crate;
-        this.styles = new HashMap<AnimationStyle, GUIItem>();
+        this.styles = new LinkedHashMap<String, GUIItem>();
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -47,11 +44,6 @@ public class CrateOptionAnimationFrame extends BaseFrame implements Listener {
         setActiveStyle();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -67,7 +59,16 @@ public class CrateOptionAnimationFrame extends BaseFrame implements Listener {
             GUIItem item = new GUIItem(0, style.getItemStack(), plugin.getManager(CustomizationManager.class).parseString(style.getName()), plugin.getManager(CustomizationManager.class).parseString(style.getDescription()));
             item.setNameColor(ChatColor.RED);
             item.setLoreColor(ChatColor.GRAY);
-            styles.put(style, item);
+            styles.put(style.name(), item);
+        }
+        // animations of the "animations" section of config.yml
+        for(AnimationTimeline timeline : plugin.getManager(AnimationManager.class).getTimelines())
+        {
+            if(styles.containsKey(timeline.getName())) continue;
+            GUIItem item = new GUIItem(0, timeline.getIcon(), timeline.getDisplayName(), timeline.getDescription());
+            item.setNameColor(ChatColor.RED);
+            item.setLoreColor(ChatColor.GRAY);
+            styles.put(timeline.getName(), item);
         }
     }
 
@@ -110,30 +111,29 @@ public class CrateOptionAnimationFrame extends BaseFrame implements Listener {
 
     private void setActiveStyle()
     {
-        AnimationStyle style = AnimationStyle.valueOf((String) crate.getOption(CrateOptionType.ANIMATION_STYLE).getValue());
-        setActive(styles.get(style));
+        GUIItem item = styles.get(((String) crate.getOption(CrateOptionType.ANIMATION_STYLE).getValue()).toUpperCase());
+        if(item != null)
+            setActive(item);
     }
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
 
         GUIItem guiItem = e.getItem();
-        ItemStack item = guiItem.getItemStack();
-        setInactive();
-
-        setActive(guiItem);
+        e.setCancelled(true);
 
-        for(AnimationStyle style : AnimationStyle.values())
+        for(Map.Entry<String, GUIItem> style : styles.entrySet())
         {
-            if(style.getItemStack().equals(guiItem.getItemStack().getType()))
-                crate.setOption(new CrateOption(CrateOptionType.ANIMATION_STYLE, style.toString()));
+            if(style.getValue() != guiItem) continue;
+            setInactive();
+            setActive(guiItem);
+            crate.setOption(new CrateOption(CrateOptionType.ANIMATION_STYLE, style.getKey()));
             plugin.getManager(CacheManager.class).update(crate);
         }
-        e.setCancelled(true);
 
 
     }
@@ -15,13 +15,11 @@ import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
 
-public class CrateOptionHologramEnabledFrame extends BaseFrame implements Listener {
+public class CrateOptionHologramEnabledFrame extends BaseFrame {
 
     private final LootCrate plugin;
     private final HologramManager hologramManager;
@@ -44,10 +42,8 @@ public class CrateOptionHologramEnabledFrame extends BaseFrame implements Listen
         this.enabled.setGlowing(true);
         this.hologramManager = plugin.getHoloManager();
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -56,11 +52,6 @@ public class CrateOptionHologramEnabledFrame extends BaseFrame implements Listen
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -89,7 +80,7 @@ public class CrateOptionHologramEnabledFrame extends BaseFrame implements Listen
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
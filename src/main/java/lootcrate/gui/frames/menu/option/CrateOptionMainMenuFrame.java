@@ -13,12 +13,10 @@ import lootcrate.managers.CustomizationManager;
 import lootcrate.objects.Crate;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.inventory.ItemStack;
 
-public class CrateOptionMainMenuFrame extends BaseFrame implements Listener {
+public class CrateOptionMainMenuFrame extends BaseFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -29,10 +27,8 @@ public class CrateOptionMainMenuFrame extends BaseFrame implements Listener {
         this.plugin = plugin;
         this.crate = crate;
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -41,11 +37,6 @@ public class CrateOptionMainMenuFrame extends BaseFrame implements Listener {
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -69,7 +60,7 @@ public class CrateOptionMainMenuFrame extends BaseFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
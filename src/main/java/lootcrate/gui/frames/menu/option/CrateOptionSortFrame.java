@@ -13,14 +13,12 @@ import lootcrate.objects.CrateOption;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class CrateOptionSortFrame extends BaseFrame implements Listener {
+public class CrateOptionSortFrame extends BaseFrame {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -33,10 +31,8 @@ public class CrateOptionSortFrame extends BaseFrame implements Listener {
         this.crate = crate;
         this.sortTypes = new HashMap<>();
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -47,11 +43,6 @@ public class CrateOptionSortFrame extends BaseFrame implements Listener {
         setActiveStyle();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -120,7 +111,7 @@ public class CrateOptionSortFrame extends BaseFrame implements Listener {
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
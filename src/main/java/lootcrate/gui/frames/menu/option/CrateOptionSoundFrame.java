@@ -16,8 +16,6 @@ import lootcrate.utils.ItemUtils;
 import lootcrate.utils.SoundUtils;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.inventory.ItemStack;
 
@@ -27,7 +25,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class CrateOptionSoundFrame extends BaseFrame implements Listener, ShiftClickAllowed {
+public class CrateOptionSoundFrame extends BaseFrame implements ShiftClickAllowed {
 
     private final LootCrate plugin;
     private final Crate crate;
@@ -43,10 +41,8 @@ public class CrateOptionSoundFrame extends BaseFrame implements Listener, ShiftC
                 .sorted(Comparator.comparing(Sounds::name))
                 .collect(Collectors.toList());
 
-        registerFrame();
         generateFrame();
         generateNavigation();
-        registerItems();
     }
 
     @Override
@@ -55,11 +51,6 @@ public class CrateOptionSoundFrame extends BaseFrame implements Listener, ShiftC
         fillOptions();
     }
 
-    @Override
-    public void unregisterFrame() {
-        GUIItemClickEvent.getHandlerList().unregister(this);
-    }
-
     // methods
 
     public void fillBackground(Material m) {
@@ -76,7 +67,7 @@ public class CrateOptionSoundFrame extends BaseFrame implements Listener, ShiftC
 
     // events
 
-    @EventHandler
+    @Override
     public void onGUIItemClick(GUIItemClickEvent e) {
         if (!e.sameFrame(this))
             return;
@@ -2,25 +2,168 @@ package lootcrate.gui.frames.types;
 
 import lootcrate.LootCrate;
 import lootcrate.gui.items.GUIItem;
+import lootcrate.managers.AnimationManager;
+import lootcrate.managers.CrateManager;
+import lootcrate.objects.Crate;
+import lootcrate.objects.CrateItem;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Listener;
+import org.bukkit.inventory.ItemStack;
 
-public abstract class AnimatedFrame extends BaseFrame implements Listener {
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
-    public AnimatedFrame(LootCrate plugin, Player p, String title, GUIItem[] contents) {
-        super(plugin, p, title, contents, 45);
+/**
+ * Opening animation. The winner and everything the animation shows are rolled
+ * when the frame is created, so stepping the animation only plays them back,
+ * and the animation can be completed at any point by giving the winner.
+ * <p>
+ * Frames are pooled by the {@link AnimationManager} once their animation is
+ * over, {@link #reset(Player)} hands them to the next player with a new winner
+ * and timeline, keeping the inventory and the reward items already built but
+ * clearing what the previous opening left in them.
+ */
+public abstract class AnimatedFrame extends BaseFrame {
+
+    protected final Crate crate;
+    protected CrateItem winner;
+    private final ItemStack[] rendered;
+    private final Map<CrateItem, GUIItem> rewardItems = new IdentityHashMap<CrateItem, GUIItem>();
+    private int tick;
+    private boolean running;
+    private boolean rewarded;
+
+    public AnimatedFrame(LootCrate plugin, Player p, Crate crate, int size) {
+        super(plugin, p, crate.getName(), size);
+        this.crate = crate;
+        this.rendered = new ItemStack[size];
+        this.winner = plugin.getManager(CrateManager.class).getRandomItem(crate);
+    }
+
+    /**
+     * Rolls the timeline of the animation for the current winner and shows its
+     * first frame, called on creation and on every reset
+     */
+    protected abstract void roll();
+
+    /**
+     * Prepares a pooled frame for another opening
+     *
+     * @param p the player opening the crate
+     */
+    public void reset(Player p) {
+        this.player = p;
+        this.tick = 0;
+        this.running = false;
+        this.rewarded = false;
+        Arrays.fill(contents, null);
+        Arrays.fill(rendered, null);
+        getInventory().clear();
+        this.winner = plugin.getManager(CrateManager.class).getRandomItem(crate);
+        roll();
     }
 
-    public AnimatedFrame(LootCrate plugin, Player p, String title) {
-        super(plugin, p, title, 45);
+    /**
+     * Gets the item showing a reward, built once per reward of the crate and
+     * rebuilt if the reward was edited since
+     *
+     * @param item the reward
+     * @return the item showing it
+     */
+    protected GUIItem rewardItem(CrateItem item) {
+        GUIItem guiItem = rewardItems.get(item);
+        if (guiItem == null || guiItem.getItemStack() != item.getItem()) {
+            guiItem = new GUIItem(-1, item);
+            rewardItems.put(item, guiItem);
+        }
+        return guiItem;
+    }
+
+    /**
+     * Sets an item, only sending it to the inventory if the slot does not
+     * already show that very stack
+     */
+    @Override
+    public void setItem(int slot, GUIItem item) {
+        if (slot >= contents.length || slot < 0)
+            return;
+
+        contents[slot] = item;
+        ItemStack stack = item.getItemStack();
+        if (rendered[slot] == stack)
+            return;
+        rendered[slot] = stack;
+        getInventory().setItem(slot, stack);
     }
 
     public AnimatedFrame getAnimatedFrame() {
         return this;
     }
 
-    public abstract void showAnimation();
+    public CrateItem getWinner() {
+        return winner;
+    }
+
+    public Crate getCrate() {
+        return crate;
+    }
+
+    /**
+     * Starts the animation, it is then stepped every tick by the
+     * {@link AnimationManager}
+     */
+    public void showAnimation() {
+        running = true;
+        plugin.getManager(AnimationManager.class).start(this);
+    }
+
+    /**
+     * Advances the animation by one tick
+     *
+     * @param tick ticks elapsed since the start of the animation
+     * @return false once the animation is over
+     */
+    protected abstract boolean advance(int tick);
 
+    /**
+     * Steps the animation, called by the {@link AnimationManager}
+     *
+     * @return false once the animation is over
+     */
+    public boolean step() {
+        if (running)
+            running = advance(tick++);
+        return running;
+    }
+
+    /**
+     * Gives the winner to the viewer, only the first time it is called
+     */
+    protected void giveReward() {
+        if (rewarded)
+            return;
+        rewarded = true;
+        plugin.getManager(CrateManager.class).giveReward(winner, player, crate.getName(), crate);
+    }
 
+    /**
+     * Ends the animation right away, giving the winner if it was not given yet
+     * and closing the frame
+     */
+    public void completeAnimation() {
+        if (!running)
+            return;
+        running = false;
+        giveReward();
+        closeFrame(player, this);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getAnimationTick() {
+        return tick;
+    }
 
 }
@@ -10,15 +10,21 @@ import lootcrate.utils.ObjUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.*;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public abstract class BaseFrame implements Frame, Listener, Pageable {
+/**
+ * Base of every menu. A frame is the holder of its own inventory, so clicks are
+ * routed to it by inventory identity from a single listener, and the handler of
+ * the clicked slot is found in the contents array.
+ */
+public abstract class BaseFrame implements Frame, InventoryHolder, Pageable {
     protected LootCrate plugin;
     protected int id;
     protected Player player;
@@ -129,18 +135,6 @@ public abstract class BaseFrame implements Frame, Listener, Pageable {
         plugin.getManager(InventoryManager.class).closeFrame(player, this);
     }
 
-    @Override
-    public void registerItems() {
-        for (GUIItem item : getContents())
-            if (item != null)
-                plugin.getServer().getPluginManager().registerEvents(item, plugin);
-    }
-
-    @Override
-    public void registerFrame() {
-        plugin.getServer().getPluginManager().registerEvents(this, plugin);
-    }
-
     @Override
     public void fillBackground(Material m) {
         for (int i = 0; i < getInventory().getSize(); i++) {
@@ -188,7 +182,7 @@ public abstract class BaseFrame implements Frame, Listener, Pageable {
     }
 
     public Inventory createInventory() {
-        return Bukkit.createInventory(null, size, getTitle());
+        return Bukkit.createInventory(this, size, getTitle());
     }
 
     @Override
@@ -205,24 +199,30 @@ public abstract class BaseFrame implements Frame, Listener, Pageable {
         this.setItem(getSize() - 9, new GUIItem(getSize() - 9, navItems.getNavBlocker()));
     }
 
-    @EventHandler
-    public void onInventoryDragEvent(InventoryDragEvent e) {
-        if (!e.getWhoClicked().equals(this.getViewer()))
-            return;
-        if (e.getInventory() != this.getInventory())
-            return;
-        e.setCancelled(true);
-    }
+    /**
+     * Called when an item of this frame is clicked
+     *
+     * @param e the click, cancelled if the clicked slot holds an item
+     */
+    public void onGUIItemClick(GUIItemClickEvent e) {
 
+    }
 
-    @EventHandler
-    public void onInventoryClickEvent(InventoryClickEvent e) {
-
-        if (!e.getWhoClicked().equals(this.getViewer()))
-            return;
+    /**
+     * Handles a drag in an inventory held by this frame
+     */
+    public void handleDrag(InventoryDragEvent e) {
+        e.setCancelled(true);
+    }
 
-        if (e.getInventory() != this.getInventory())
+    /**
+     * Handles a click in an inventory held by this frame
+     */
+    public void handleClick(InventoryClickEvent e) {
+        if (!e.getWhoClicked().equals(this.getViewer())) {
+            e.setCancelled(true);
             return;
+        }
 
         if (e.getClickedInventory() != this.getInventory()) {
             if (!(this instanceof InputAllowed))
@@ -267,7 +267,12 @@ public abstract class BaseFrame implements Frame, Listener, Pageable {
         }
 
         GUIItemClickEvent event = new GUIItemClickEvent(e, this);
-        Bukkit.getPluginManager().callEvent(event);
+        GUIItem item = event.getItem();
+        if (item != null) {
+            event.setCancelled(true);
+            item.click();
+        }
+        onGUIItemClick(event);
         e.setCancelled(event.isCancelled());
     }
 
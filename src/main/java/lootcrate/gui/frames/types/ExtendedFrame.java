@@ -3,9 +3,8 @@ package lootcrate.gui.frames.types;
 import lootcrate.LootCrate;
 import lootcrate.gui.items.GUIItem;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Listener;
 
-public abstract class ExtendedFrame extends BaseFrame implements Listener {
+public abstract class ExtendedFrame extends BaseFrame {
 
     public ExtendedFrame(LootCrate plugin, Player p, String title, GUIItem[] contents) {
         super(plugin, p, title, contents, 54);
@@ -31,12 +31,6 @@ public interface Frame {
 
     void close();
 
-    void registerItems();
-
-    void registerFrame();
-
-    void unregisterFrame();
-
     void fillBackground(Material m);
 
     void generateFrame();
@@ -0,0 +1,41 @@
+package lootcrate.gui.items;
+
+import org.bukkit.Material;
+
+import java.util.List;
+
+/**
+ * Filler items of an animation. A palette is built when its animation is
+ * compiled, with the name already set on each item, so that drawing filler
+ * allocates nothing. The items are shared by every opening of the animation
+ * and must not be modified.
+ */
+public final class FillerPalette {
+
+    public static final List<Material> STAINED_GLASS = List.of(Material.BLACK_STAINED_GLASS_PANE,
+            Material.BLUE_STAINED_GLASS_PANE, Material.BROWN_STAINED_GLASS_PANE, Material.CYAN_STAINED_GLASS_PANE,
+            Material.GRAY_STAINED_GLASS_PANE, Material.GREEN_STAINED_GLASS_PANE, Material.LIGHT_BLUE_STAINED_GLASS_PANE,
+            Material.LIME_STAINED_GLASS_PANE, Material.MAGENTA_STAINED_GLASS_PANE, Material.ORANGE_STAINED_GLASS_PANE,
+            Material.PINK_STAINED_GLASS_PANE, Material.PURPLE_STAINED_GLASS_PANE, Material.YELLOW_STAINED_GLASS_PANE,
+            Material.WHITE_STAINED_GLASS_PANE, Material.RED_STAINED_GLASS_PANE);
+
+    private final GUIItem[] items;
+
+    /**
+     * @param name      display name of the items
+     * @param materials materials of the items
+     */
+    public FillerPalette(String name, List<Material> materials) {
+        this.items = new GUIItem[materials.size()];
+        for (int i = 0; i < items.length; i++)
+            items[i] = new GUIItem(-1, materials.get(i), name);
+    }
+
+    public GUIItem get(int index) {
+        return items[index];
+    }
+
+    public int size() {
+        return items.length;
+    }
+}
@@ -1,15 +1,11 @@
 package lootcrate.gui.items;
 
-import lootcrate.gui.events.custom.GUIItemClickEvent;
 import lootcrate.objects.CrateItem;
 import lootcrate.objects.CrateKey;
 import lootcrate.utils.ItemUtils;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.inventory.ItemFactory;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
@@ -20,7 +16,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 
-public class GUIItem implements Listener {
+public class GUIItem {
     private CrateItem crateItem;
     private ItemStack item;
     private int slot;
@@ -179,11 +175,16 @@ public class GUIItem implements Listener {
             item.removeEnchantment(Enchantment.MENDING);
     }
 
-    @EventHandler
-    public void onGUIClick(GUIItemClickEvent e) throws Exception {
-        if(this != e.getItem()) return;
-        if (function != null)
+    /**
+     * Runs the click handler of this item, if it has one
+     */
+    public void click() {
+        if (function == null)
+            return;
+        try {
             function.call();
-        e.setCancelled(true);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
 }
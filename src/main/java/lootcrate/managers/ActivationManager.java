@@ -0,0 +1,261 @@
+package lootcrate.managers;
+
+import lootcrate.LootCrate;
+import lootcrate.objects.Crate;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Tracks which crate locations are active: in a loaded chunk with at least one
+ * player within view distance. Crate chunks keep a count of the players in
+ * range, updated when a player crosses into another chunk, and a loaded flag
+ * updated from chunk events, so ambient effects and holograms only have to
+ * look at the active crates.
+ * <p>
+ * The crate chunks are rebuilt from the location list on the main thread
+ * after {@link #invalidate()}.
+ */
+public class ActivationManager extends BasicManager {
+
+    private final Map<String, Map<Long, CrateChunk>> chunks = new HashMap<String, Map<Long, CrateChunk>>();
+    private final Map<UUID, PlayerChunk> players = new HashMap<UUID, PlayerChunk>();
+    private final Set<CrateChunk> active = new LinkedHashSet<CrateChunk>();
+    private volatile boolean dirty = true;
+    private volatile int version;
+    private BukkitRunnable refreshTask;
+
+    public ActivationManager(LootCrate plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Marks the crate chunks as outdated, they are rebuilt on the next tick
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Gets a counter that changes every time the set of active crates changes
+     *
+     * @return version of the active set
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Runs an action for every active crate location
+     *
+     * @param action receives each location and its crate
+     */
+    public synchronized void forEachActive(BiConsumer<Location, Crate> action) {
+        for (CrateChunk chunk : active)
+            chunk.crates.forEach(action);
+    }
+
+    /**
+     * Gets the amount of active crate locations
+     *
+     * @return amount of active locations
+     */
+    public synchronized int countActive() {
+        int count = 0;
+        for (CrateChunk chunk : active)
+            count += chunk.crates.size();
+        return count;
+    }
+
+    /**
+     * Moves a player to a chunk, updating the crate chunks that entered or left
+     * their view distance
+     *
+     * @param uuid   the UUID of the player
+     * @param world  World the player is in
+     * @param chunkX Chunk x of the player
+     * @param chunkZ Chunk z of the player
+     */
+    public synchronized void moveTo(UUID uuid, World world, int chunkX, int chunkZ) {
+        PlayerChunk old = players.get(uuid);
+        if (old != null && old.x == chunkX && old.z == chunkZ && old.world.equals(world.getName()))
+            return;
+        if (old != null)
+            adjustViewers(old, -1);
+        PlayerChunk now = new PlayerChunk(world.getName(), chunkX, chunkZ);
+        players.put(uuid, now);
+        adjustViewers(now, 1);
+    }
+
+    /**
+     * Stops tracking a player that left
+     *
+     * @param uuid the UUID of the player
+     */
+    public synchronized void leave(UUID uuid) {
+        PlayerChunk old = players.remove(uuid);
+        if (old != null)
+            adjustViewers(old, -1);
+    }
+
+    /**
+     * Updates the loaded flag of a crate chunk
+     *
+     * @param chunk  Chunk that loaded or unloaded
+     * @param loaded true if the chunk loaded
+     */
+    public synchronized void setLoaded(Chunk chunk, boolean loaded) {
+        Map<Long, CrateChunk> world = chunks.get(chunk.getWorld().getName());
+        if (world == null)
+            return;
+        CrateChunk crateChunk = world.get(key(chunk.getX(), chunk.getZ()));
+        if (crateChunk == null)
+            return;
+        crateChunk.loaded = loaded;
+        update(crateChunk);
+    }
+
+    private void adjustViewers(PlayerChunk player, int delta) {
+        Map<Long, CrateChunk> world = chunks.get(player.world);
+        if (world == null)
+            return;
+        int range = Bukkit.getViewDistance();
+        for (CrateChunk chunk : world.values()) {
+            if (Math.abs(chunk.x - player.x) > range || Math.abs(chunk.z - player.z) > range)
+                continue;
+            chunk.viewers += delta;
+            update(chunk);
+        }
+    }
+
+    /**
+     * Activates or deactivates a crate chunk, spawning or removing the holograms
+     * of its crates
+     */
+    private void update(CrateChunk chunk) {
+        HologramManager holoManager = getPlugin().getHoloManager();
+        if (chunk.loaded && chunk.viewers > 0) {
+            if (!active.add(chunk))
+                return;
+            version++;
+            if (holoManager != null)
+                chunk.crates.forEach(holoManager::show);
+        } else if (active.remove(chunk)) {
+            version++;
+            if (holoManager != null)
+                for (Location l : chunk.crates.keySet())
+                    holoManager.hide(l);
+        }
+    }
+
+    /**
+     * Rebuilds the crate chunks from the location list and the online players
+     */
+    private synchronized void rebuild() {
+        dirty = false;
+        Map<Location, Crate> wasActive = new HashMap<Location, Crate>();
+        forEachActive(wasActive::put);
+        chunks.clear();
+        active.clear();
+
+        // an immutable snapshot, reloads publish a new one instead of changing it
+        Map<Location, Crate> locations = getPlugin().getManager(LocationManager.class).getLocationList();
+        for (Map.Entry<Location, Crate> entry : locations.entrySet()) {
+            Location l = entry.getKey();
+            World world = l.getWorld();
+            if (world == null || entry.getValue() == null)
+                continue;
+            int chunkX = l.getBlockX() >> 4;
+            int chunkZ = l.getBlockZ() >> 4;
+            chunks.computeIfAbsent(world.getName(), name -> new HashMap<Long, CrateChunk>())
+                    .computeIfAbsent(key(chunkX, chunkZ), key -> new CrateChunk(chunkX, chunkZ, world.isChunkLoaded(chunkX, chunkZ)))
+                    .crates.put(l, entry.getValue());
+        }
+
+        players.clear();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            Location l = p.getLocation();
+            PlayerChunk player = new PlayerChunk(p.getWorld().getName(), l.getBlockX() >> 4, l.getBlockZ() >> 4);
+            players.put(p.getUniqueId(), player);
+            Map<Long, CrateChunk> world = chunks.get(player.world);
+            if (world == null)
+                continue;
+            int range = Bukkit.getViewDistance();
+            for (CrateChunk chunk : world.values())
+                if (Math.abs(chunk.x - player.x) <= range && Math.abs(chunk.z - player.z) <= range)
+                    chunk.viewers++;
+        }
+
+        for (Map<Long, CrateChunk> world : chunks.values())
+            for (CrateChunk chunk : world.values())
+                if (chunk.loaded && chunk.viewers > 0)
+                    active.add(chunk);
+        version++;
+
+        HologramManager holoManager = getPlugin().getHoloManager();
+        if (holoManager == null)
+            return;
+        Map<Location, Crate> nowActive = new HashMap<Location, Crate>();
+        forEachActive(nowActive::put);
+        for (Location l : wasActive.keySet())
+            if (!nowActive.containsKey(l))
+                holoManager.hide(l);
+        for (Map.Entry<Location, Crate> entry : nowActive.entrySet())
+            if (!wasActive.containsKey(entry.getKey()))
+                holoManager.show(entry.getKey(), entry.getValue());
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void enable() {
+        refreshTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (dirty)
+                    rebuild();
+            }
+        };
+        refreshTask.runTaskTimer(getPlugin(), 1L, 1L);
+    }
+
+    @Override
+    public void disable() {
+        if (refreshTask != null)
+            refreshTask.cancel();
+    }
+
+    private static class CrateChunk {
+        private final int x;
+        private final int z;
+        private final Map<Location, Crate> crates = new LinkedHashMap<Location, Crate>();
+        private boolean loaded;
+        private int viewers;
+
+        private CrateChunk(int x, int z, boolean loaded) {
+            this.x = x;
+            this.z = z;
+            this.loaded = loaded;
+        }
+    }
+
+    private static class PlayerChunk {
+        private final String world;
+        private final int x;
+        private final int z;
+
+        private PlayerChunk(String world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package lootcrate.managers;
+
+import lootcrate.LootCrate;
+import lootcrate.enums.Option;
+import lootcrate.objects.AmbientEffect;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+
+/**
+ * Plays the ambient effects of the active crates. Effects are compiled per
+ * crate on reload, then queued by the tick they are next due at, spread over
+ * their period so that the crates do not all play on the same tick. Each tick
+ * plays due effects until the particle budget is spent, leaving the rest for
+ * the next tick, and skips effects with no player close enough to see them.
+ */
+public class AmbientEffectManager extends BasicManager {
+
+    private volatile Map<String, List<AmbientEffect>> plans = new HashMap<String, List<AmbientEffect>>();
+    private volatile boolean plansChanged = true;
+    private final PriorityQueue<ScheduledEffect> queue = new PriorityQueue<ScheduledEffect>(
+            Comparator.comparingLong(scheduled -> scheduled.nextTick));
+    private volatile int budget;
+    private volatile double distanceSquared;
+    private int activationVersion = -1;
+    private long tick;
+    private BukkitRunnable task;
+
+    public AmbientEffectManager(LootCrate plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Compiles the ambient effects of every crate named in the "particule" and
+     * "effect" sections of config.yml, and reads the budget and distance options
+     */
+    public void compile() {
+        OptionManager optionManager = getPlugin().getManager(OptionManager.class);
+        int particleBudget = optionManager.valueOf(Option.AMBIENT_PARTICLE_BUDGET);
+        int distance = optionManager.valueOf(Option.AMBIENT_EFFECT_DISTANCE);
+        budget = particleBudget <= 0 ? Integer.MAX_VALUE : particleBudget;
+        distanceSquared = (double) distance * distance;
+
+        ConfigurationSection particles = getPlugin().getConfig().getConfigurationSection("particule");
+        ConfigurationSection effects = getPlugin().getConfig().getConfigurationSection("effect");
+        Set<String> names = new HashSet<String>();
+        if (particles != null)
+            names.addAll(particles.getKeys(false));
+        if (effects != null)
+            names.addAll(effects.getKeys(false));
+
+        Map<String, List<AmbientEffect>> compiled = new HashMap<String, List<AmbientEffect>>();
+        for (String name : names) {
+            List<AmbientEffect> plan = AmbientEffect.compile(particles == null ? null : particles.getString(name),
+                    effects == null ? null : effects.getString(name));
+            if (!plan.isEmpty())
+                compiled.put(name, plan);
+        }
+        plans = compiled;
+        plansChanged = true;
+    }
+
+    private void tick() {
+        tick++;
+        ActivationManager activationManager = getPlugin().getManager(ActivationManager.class);
+        if (plansChanged || activationVersion != activationManager.getVersion())
+            schedule(activationManager);
+
+        int budget = this.budget;
+        double distanceSquared = this.distanceSquared;
+        int remaining = budget;
+        while (!queue.isEmpty() && queue.peek().nextTick <= tick) {
+            ScheduledEffect scheduled = queue.peek();
+            int cost = scheduled.effect.getCost();
+            // an effect larger than the whole budget still gets a tick of its own
+            if (cost > remaining && remaining < budget)
+                break;
+            queue.poll();
+            if (hasViewer(scheduled.location, distanceSquared)) {
+                scheduled.effect.play(scheduled.location);
+                remaining -= cost;
+            }
+            scheduled.nextTick = tick + scheduled.effect.getPeriod();
+            queue.add(scheduled);
+        }
+    }
+
+    /**
+     * Queues the effects of every active crate, each at a fixed phase of its
+     * period so that rescheduling keeps the rhythm of the crates
+     */
+    private void schedule(ActivationManager activationManager) {
+        plansChanged = false;
+        activationVersion = activationManager.getVersion();
+        queue.clear();
+        Map<String, List<AmbientEffect>> current = plans;
+        activationManager.forEachActive((location, crate) -> {
+            List<AmbientEffect> plan = current.get(crate.getName());
+            if (plan == null)
+                return;
+            Location above = location.clone().add(0.5, 1.2, 0.5); // au-dessus du bloc
+            for (AmbientEffect effect : plan) {
+                int period = effect.getPeriod();
+                int phase = Math.floorMod(location.hashCode() * 31 + effect.getType().ordinal(), period);
+                queue.add(new ScheduledEffect(above, effect, tick + Math.floorMod(phase - tick, (long) period)));
+            }
+        });
+    }
+
+    private boolean hasViewer(Location l, double distanceSquared) {
+        for (Player p : l.getWorld().getPlayers())
+            if (p.getLocation().distanceSquared(l) <= distanceSquared)
+                return true;
+        return false;
+    }
+
+    @Override
+    public void enable() {
+        compile();
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+        task.runTaskTimer(getPlugin(), 40L, 1L);
+    }
+
+    @Override
+    public void disable() {
+        if (task != null)
+            task.cancel();
+        queue.clear();
+    }
+
+    private static class ScheduledEffect {
+        private final Location location;
+        private final AmbientEffect effect;
+        private long nextTick;
+
+        private ScheduledEffect(Location location, AmbientEffect effect, long nextTick) {
+            this.location = location;
+            this.effect = effect;
+            this.nextTick = nextTick;
+        }
+    }
+}
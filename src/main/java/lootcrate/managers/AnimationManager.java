@@ -0,0 +1,311 @@
+package lootcrate.managers;
+
+import lootcrate.LootCrate;
+import lootcrate.enums.AnimationStyle;
+import lootcrate.enums.CustomizationOption;
+import lootcrate.enums.Option;
+import lootcrate.gui.frames.animations.CrateTimelineAnimationFrame;
+import lootcrate.gui.frames.types.AnimatedFrame;
+import lootcrate.gui.items.FillerPalette;
+import lootcrate.objects.AnimationTimeline;
+import lootcrate.objects.Crate;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Runs every opening animation from a single task. Each tick the running
+ * animations are stepped in turn, starting where the previous tick stopped,
+ * until the step budget is spent; the animations left over are stepped on the
+ * next tick instead, so a burst of openings slows the animations down rather
+ * than the server.
+ * <p>
+ * Every animation is an {@link AnimationTimeline} compiled on reload: the
+ * built-in styles from their customization options, and the animations of the
+ * "animations" section of config.yml, which can also replace a built-in one.
+ * <p>
+ * Finished animations are kept in a bounded pool per crate and animation, and
+ * handed out again to the next openings of that crate instead of building a
+ * new frame and inventory every time.
+ * <p>
+ * Players can choose to skip animations, the preference is kept in their
+ * persistent data.
+ */
+public class AnimationManager extends BasicManager {
+
+    private final List<AnimatedFrame> animations = new ArrayList<AnimatedFrame>();
+    private final NamespacedKey skipKey;
+    private final Map<String, Deque<CrateTimelineAnimationFrame>> pool = new HashMap<String, Deque<CrateTimelineAnimationFrame>>();
+    private volatile Map<String, AnimationTimeline> timelines = new LinkedHashMap<String, AnimationTimeline>();
+    private volatile int budget;
+    private volatile int poolSize;
+    private volatile boolean poolChanged;
+    private int cursor;
+    private BukkitRunnable task;
+
+    public AnimationManager(LootCrate plugin) {
+        super(plugin);
+        this.skipKey = new NamespacedKey(plugin, "skip-animation");
+    }
+
+    /**
+     * Compiles the animations and reads the step budget and the pool size from
+     * config.yml, the pooled frames are dropped as they play the previous
+     * animations
+     */
+    public void reload() {
+        Map<String, AnimationTimeline> compiled = new LinkedHashMap<String, AnimationTimeline>();
+        CustomizationManager customizationManager = getPlugin().getManager(CustomizationManager.class);
+        compile(compiled, AnimationStyle.CSGO.name(), csgo(customizationManager));
+        compile(compiled, AnimationStyle.RANDOM_GLASS.name(), randomGlass(customizationManager));
+        compile(compiled, AnimationStyle.REMOVING_ITEM.name(), removingItem(customizationManager));
+        ConfigurationSection definitions = getPlugin().getConfig().getConfigurationSection("animations");
+        if (definitions != null)
+            for (String name : definitions.getKeys(false))
+                compile(compiled, name, definitions.getConfigurationSection(name));
+        timelines = compiled;
+
+        OptionManager optionManager = getPlugin().getManager(OptionManager.class);
+        int steps = optionManager.valueOf(Option.ANIMATION_TICK_BUDGET);
+        int frames = optionManager.valueOf(Option.ANIMATION_POOL_SIZE);
+        budget = steps <= 0 ? Integer.MAX_VALUE : steps;
+        poolSize = Math.max(0, frames);
+        poolChanged = true;
+    }
+
+    private void compile(Map<String, AnimationTimeline> compiled, String name, ConfigurationSection definition) {
+        if (definition == null)
+            return;
+        try {
+            AnimationTimeline timeline = AnimationTimeline.compile(name, definition);
+            compiled.put(timeline.getName(), timeline);
+        } catch (IllegalArgumentException e) {
+            getPlugin().getLogger().warning("Animation " + name + " is not valid: " + e.getMessage());
+        } catch (RuntimeException e) {
+            getPlugin().getLogger().log(Level.WARNING, "Animation " + name + " is not valid", e);
+        }
+    }
+
+    private ConfigurationSection csgo(CustomizationManager c) {
+        MemoryConfiguration definition = new MemoryConfiguration();
+        definition.set("duration", (int) Math.max(1, c.parseLong(CustomizationOption.CSGO_ANIMATION_DURATION)) * 20);
+        palette(definition, "background", c.parseMaterial(CustomizationOption.CSGO_ANIMATION_BACKGROUND_MATERIAL), c.parseString(CustomizationOption.CSGO_ANIMATION_BACKGROUND_NAME));
+        palette(definition, "pointer", c.parseMaterial(CustomizationOption.CSGO_ANIMATION_POINTER_MATERIAL), c.parseString(CustomizationOption.CSGO_ANIMATION_POINTER_NAME));
+        palette(definition, "winner", c.parseMaterial(CustomizationOption.CSGO_ANIMATION_WINNER_BACKGROUND_MATERIAL), c.parseString(CustomizationOption.CSGO_ANIMATION_WINNER_BACKGROUND_NAME));
+        definition.set("path.type", "scroll");
+        definition.set("path.slots", "20-24");
+        definition.set("path.every", (int) Math.max(1, c.parseLong(CustomizationOption.CSGO_ANIMATION_SCROLL_SPEED)));
+        definition.set("path.winner", 22);
+        definition.set("keyframes", List.of(
+                Map.of("at", "open", "except", "20-24", "palette", "background"),
+                Map.of("at", "open", "slots", "13,31", "palette", "pointer"),
+                Map.of("at", "end", "except", 22, "palette", "winner")));
+        return definition;
+    }
+
+    private ConfigurationSection randomGlass(CustomizationManager c) {
+        Material winner = c.parseMaterial(CustomizationOption.RND_ANIMATION_WINNER_BACKGROUND_MATERIAL);
+        MemoryConfiguration definition = new MemoryConfiguration();
+        definition.set("duration", (int) Math.max(1, c.parseLong(CustomizationOption.RND_ANIMATION_DURATION)) * 20);
+        definition.set("palettes.glass.materials", FillerPalette.STAINED_GLASS.stream().map(Material::name).collect(Collectors.toList()));
+        definition.set("palettes.glass.name", c.parseString(CustomizationOption.RND_ANIMATION_GLASS_NAME));
+        palette(definition, "pointer", c.parseMaterial(CustomizationOption.RND_ANIMATION_POINTER_MATERIAL), c.parseString(CustomizationOption.RND_ANIMATION_POINTER_NAME));
+        palette(definition, "background", winner, "");
+        palette(definition, "winner", winner, c.parseString(CustomizationOption.RND_ANIMATION_WINNER_BACKGROUND_NAME));
+        definition.set("path.type", "shuffle");
+        definition.set("path.slots", 22);
+        definition.set("path.every", (int) Math.max(1, c.parseLong(CustomizationOption.RND_ANIMATION_SCROLL_SPEED)));
+        definition.set("keyframes", List.of(
+                Map.of("at", "open", "except", 22, "palette", "background"),
+                Map.of("at", "open", "slots", "13,31", "palette", "pointer"),
+                Map.of("at", 0, "until", "end", "every", (int) Math.max(1, c.parseLong(CustomizationOption.RND_ANIMATION_GLASS_SPEED)),
+                        "except", "13,22,31", "palette", "glass"),
+                Map.of("at", "end", "except", 22, "palette", "winner"),
+                Map.of("at", "end", "winner", 22)));
+        return definition;
+    }
+
+    private ConfigurationSection removingItem(CustomizationManager c) {
+        MemoryConfiguration definition = new MemoryConfiguration();
+        palette(definition, "filler", c.parseMaterial(CustomizationOption.REMOVING_ANIMATION_FILLER_MATERIAL), c.parseString(CustomizationOption.REMOVING_ANIMATION_FILLER_NAME));
+        definition.set("path.type", "remove");
+        definition.set("path.slots", "0-44");
+        definition.set("path.every", (int) Math.max(1, c.parseLong(CustomizationOption.REMOVING_ANIMATION_DURATION)));
+        definition.set("path.filler", "filler");
+        definition.set("keyframes", List.of(
+                Map.of("at", "end", "except", 22, "palette", "filler"),
+                Map.of("at", "end", "winner", 22)));
+        return definition;
+    }
+
+    private static void palette(ConfigurationSection definition, String name, Material material, String itemName) {
+        definition.set("palettes." + name + ".materials", List.of(material.name()));
+        definition.set("palettes." + name + ".name", itemName);
+    }
+
+    /**
+     * Gets a compiled animation
+     *
+     * @param name name of the animation, as set in the animation style of a crate
+     * @return the animation, or null if there is none of that name
+     */
+    public AnimationTimeline getTimeline(String name) {
+        return name == null ? null : timelines.get(name.toUpperCase());
+    }
+
+    public Collection<AnimationTimeline> getTimelines() {
+        return Collections.unmodifiableCollection(timelines.values());
+    }
+
+    /**
+     * Gets a frame playing an animation for a crate, reset from the pool if one
+     * is free or built otherwise
+     *
+     * @param crate    the crate being opened
+     * @param timeline the animation
+     * @param p        the player opening the crate
+     * @return the frame, ready to be opened
+     */
+    public AnimatedFrame acquire(Crate crate, AnimationTimeline timeline, Player p) {
+        checkPool();
+        Deque<CrateTimelineAnimationFrame> idle = pool.get(poolKey(crate, timeline));
+        while (idle != null && !idle.isEmpty()) {
+            CrateTimelineAnimationFrame frame = idle.pop();
+            // the crate may have been reloaded or renamed since the frame was built
+            if (frame.getTimeline() == timeline && frame.getCrate() == crate && frame.getTitle().equals(crate.getName())) {
+                frame.reset(p);
+                return frame;
+            }
+        }
+        return new CrateTimelineAnimationFrame(getPlugin(), p, crate, timeline);
+    }
+
+    /**
+     * Returns a finished frame to the pool, unless the pool of its crate is full
+     * or someone still looks at its inventory
+     */
+    private void release(AnimatedFrame frame) {
+        checkPool();
+        if (!(frame instanceof CrateTimelineAnimationFrame) || frame.isRunning() || !frame.getInventory().getViewers().isEmpty())
+            return;
+        CrateTimelineAnimationFrame timelineFrame = (CrateTimelineAnimationFrame) frame;
+        Deque<CrateTimelineAnimationFrame> idle = pool.computeIfAbsent(poolKey(frame.getCrate(), timelineFrame.getTimeline()),
+                key -> new ArrayDeque<CrateTimelineAnimationFrame>());
+        if (idle.size() < poolSize)
+            idle.push(timelineFrame);
+    }
+
+    private void checkPool() {
+        if (!poolChanged)
+            return;
+        poolChanged = false;
+        pool.clear();
+    }
+
+    private static String poolKey(Crate crate, AnimationTimeline timeline) {
+        return crate.getId() + ":" + timeline.getName();
+    }
+
+    /**
+     * Starts stepping an animation, from the next tick on
+     *
+     * @param frame the animation
+     */
+    public void start(AnimatedFrame frame) {
+        animations.add(frame);
+    }
+
+    /**
+     * Completes the animations viewed by a player right away
+     *
+     * @param uuid the UUID of the player
+     */
+    public void complete(UUID uuid) {
+        for (int i = animations.size() - 1; i >= 0; i--)
+            if (animations.get(i).getViewer().getUniqueId().equals(uuid)) {
+                AnimatedFrame frame = remove(i);
+                frame.completeAnimation();
+                release(frame);
+            }
+    }
+
+    /**
+     * Checks if a player chose to skip opening animations
+     *
+     * @param p the player
+     * @return true if the animations are skipped
+     */
+    public boolean isSkipping(Player p) {
+        return p.getPersistentDataContainer().has(skipKey, PersistentDataType.BYTE);
+    }
+
+    /**
+     * Sets whether a player skips opening animations
+     *
+     * @param p        the player
+     * @param skipping true to skip the animations
+     */
+    public void setSkipping(Player p, boolean skipping) {
+        if (skipping)
+            p.getPersistentDataContainer().set(skipKey, PersistentDataType.BYTE, (byte) 1);
+        else
+            p.getPersistentDataContainer().remove(skipKey);
+    }
+
+    public int countRunning() {
+        return animations.size();
+    }
+
+    private void tick() {
+        int steps = Math.min(budget, animations.size());
+        for (int i = 0; i < steps; i++) {
+            if (cursor >= animations.size())
+                cursor = 0;
+            AnimatedFrame frame = animations.get(cursor);
+            if (frame.step())
+                cursor++;
+            else
+                release(remove(cursor));
+        }
+    }
+
+    /**
+     * Removes an animation, keeping the cursor on the animation it pointed at
+     */
+    private AnimatedFrame remove(int index) {
+        if (index < cursor)
+            cursor--;
+        return animations.remove(index);
+    }
+
+    @Override
+    public void enable() {
+        reload();
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+        task.runTaskTimer(getPlugin(), 1L, 1L);
+    }
+
+    @Override
+    public void disable() {
+        if (task != null)
+            task.cancel();
+        List<AnimatedFrame> running = new ArrayList<AnimatedFrame>(animations);
+        animations.clear();
+        for (AnimatedFrame frame : running)
+            frame.completeAnimation();
+        pool.clear();
+    }
+}
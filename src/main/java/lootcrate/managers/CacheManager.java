@@ -6,22 +6,21 @@ import lootcrate.enums.CrateOptionType;
 import lootcrate.enums.SortType;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateItem;
+import lootcrate.objects.CrateRegistry;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.configuration.file.YamlConfiguration;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 public class CacheManager extends BasicManager {
-    private List<Crate> cache;
+    private volatile CrateRegistry registry;
 
     public CacheManager(LootCrate plugin) {
         super(plugin);
-        cache = new ArrayList<Crate>();
+        registry = CrateRegistry.EMPTY;
     }
 
     /**
@@ -29,20 +28,21 @@ public class CacheManager extends BasicManager {
      *
      * @param crate Crate to update
      */
-    //TODO run async
     public void update(Crate crate) {
-        crate = verify(crate);
-        getPlugin().getManager(CrateFileManager.class).saveCrate(crate);
+        Crate verified = verify(crate);
+        getPlugin().getManager(CrateFileManager.class).saveCrate(verified);
+        invalidateCompiled(verified);
 
-        cache.remove(crate);
-        cache.add(crate);
+        publish(current -> current.with(verified));
     }
 
     public void rename(String oldCrate, Crate Crate) {
         getPlugin().getManager(CrateFileManager.class).overrideSave(oldCrate, Crate);
-        // Remove the old crate by finding it by name
-        cache.removeIf(c -> c.getName().equals(oldCrate));
-        cache.add(Crate);
+        invalidateCompiled(Crate);
+        publish(current -> {
+            Crate old = current.getByName(oldCrate);
+            return (old == null ? current : current.without(old.getId())).with(Crate);
+        });
     }
 
     /**
@@ -52,12 +52,9 @@ public class CacheManager extends BasicManager {
      */
     public void remove(Crate Crate) {
         getPlugin().getManager(CrateFileManager.class).removeCrate(Crate);
-        List<Crate> copiedCache = new ArrayList<Crate>(cache);
+        invalidateCompiled(Crate);
 
-        for (Crate cacheCrate : copiedCache) {
-            if (cacheCrate.getId() == Crate.getId())
-                cache.remove(cacheCrate);
-        }
+        publish(current -> current.without(Crate.getId()));
     }
 
     /**
@@ -75,20 +72,56 @@ public class CacheManager extends BasicManager {
      * @return Crate or null
      */
     public Crate getCrateById(int id) {
-        for (Crate crate : cache) {
-            if (crate.getId() == id)
-                return crate;
-        }
-        return null;
+        return registry.getById(id);
+    }
+
+    /**
+     * Gets Crate by given name in cache, ignoring colors and case
+     *
+     * @param name name to look for
+     * @return Crate or null
+     */
+    public Crate getCrateByName(String name) {
+        return registry.getByName(name);
     }
 
     /**
-     * Gets the cache list
+     * Gets the Crate containing the reward item of the given id
+     *
+     * @param id id of the CrateItem
+     * @return Crate or null
+     */
+    public Crate getCrateByItemId(int id) {
+        return registry.getByItemId(id);
+    }
+
+    /**
+     * Gets the cache list. The list is an immutable snapshot and is safe to
+     * read from any thread
      *
      * @return cache list
      */
     public List<Crate> getCache() {
-        return cache;
+        return registry.getCrates();
+    }
+
+    /**
+     * Gets the current immutable snapshot of the cache
+     *
+     * @return the crate registry
+     */
+    public CrateRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Publishes a new registry derived from the current one. Writers are
+     * serialized so concurrent edits are not lost
+     *
+     * @param change builds the next registry from the current one
+     */
+    private synchronized void publish(UnaryOperator<CrateRegistry> change) {
+        registry = change.apply(registry);
     }
 
     /**
@@ -99,8 +132,8 @@ public class CacheManager extends BasicManager {
         Bukkit.getScheduler().runTaskAsynchronously(this.getPlugin(), new Runnable() {
             @Override
             public void run() {
-                cache = plugin.getManager(CrateFileManager.class).loadAllCrates();
-                cache = verify(cache);
+                List<Crate> crates = verify(plugin.getManager(CrateFileManager.class).loadAllCrates());
+                publish(current -> new CrateRegistry(crates));
                 Bukkit.getScheduler().runTask(plugin, new Runnable() {
                     @Override
                     public void run() {
@@ -115,8 +148,12 @@ public class CacheManager extends BasicManager {
      * Loads the cache
      */
     public void load() {
-        cache = getPlugin().getManager(CrateFileManager.class).loadAllCrates();
-        cache = verify(cache);
+        List<Crate> crates = verify(getPlugin().getManager(CrateFileManager.class).loadAllCrates());
+        publish(current -> new CrateRegistry(crates));
+
+        CrateManager crateManager = getPlugin().getManager(CrateManager.class);
+        if (crateManager != null)
+            crateManager.invalidateAllCompiled();
     }
 
     public List<Crate> verify(List<Crate> crates) {
@@ -161,32 +198,30 @@ public class CacheManager extends BasicManager {
         return crate;
     }
 
+    /**
+     * Drops the compiled loot table and open profile of the given crate
+     *
+     * @param crate Crate whose items or chances may have changed
+     */
+    private void invalidateCompiled(Crate crate) {
+        CrateManager crateManager = getPlugin().getManager(CrateManager.class);
+        if (crateManager != null)
+            crateManager.invalidateCompiled(crate);
+    }
+
     /**
      * Wipes the Crates file, then saves the full cache into Crates file
      */
     public void save() {
-        File f = new File(this.getPlugin().getDataFolder(), File.separator + "crates.yml");
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(f);
-
-        for (String key : config.getKeys(false)) {
-            config.set(key, null);
-        }
-
-        try {
-            config.save(f);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        for (Crate Crate : cache) {
-            getPlugin().getManager(CrateFileManager.class).saveCrate(Crate);
-        }
+        getPlugin().getManager(CrateFileManager.class).saveAllCrates(getCache());
     }
 
     /**
      * Reloads the cache
      */
     public void reload() {
+        // pending edits must reach the file before it is read back
+        getPlugin().getManager(CrateFileManager.class).flush();
         load();
     }
 
@@ -205,14 +240,15 @@ public class CacheManager extends BasicManager {
      * Sauvegarde toutes les caisses du cache vers le fichier
      */
     private void saveAllCrates() {
-        for (Crate crate : cache) {
+        for (Crate crate : getCache()) {
             try {
                 getPlugin().getManager(CrateFileManager.class).saveCrate(crate);
             } catch (Exception e) {
                 getPlugin().getLogger().severe("Erreur lors de la sauvegarde de la caisse " + crate.getName() + ": " + e.getMessage());
             }
         }
-        getPlugin().getLogger().info("Sauvegarde de " + cache.size() + " caisses terminée.");
+        getPlugin().getManager(CrateFileManager.class).flush();
+        getPlugin().getLogger().info("Sauvegarde de " + getCache().size() + " caisses terminée.");
     }
 
 }
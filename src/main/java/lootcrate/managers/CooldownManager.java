@@ -5,20 +5,30 @@ import lootcrate.enums.CrateOptionType;
 import lootcrate.enums.FileType;
 import lootcrate.objects.Cooldown;
 import lootcrate.objects.Crate;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.MemorySection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.serialization.ConfigurationSerialization;
-import org.checkerframework.checker.units.qual.A;
+import lootcrate.objects.TimingWheel;
+import lootcrate.storage.CooldownStore;
+import lootcrate.storage.StorageException;
+import lootcrate.storage.YamlStorageBackend;
+import org.bukkit.scheduler.BukkitRunnable;
 
-import java.io.File;
 import java.util.*;
-
+import java.util.logging.Level;
+
+/**
+ * Active cooldowns, indexed by player then crate id. Every cooldown is also
+ * scheduled on a {@link TimingWheel} which removes it once it is over, so the
+ * table only ever holds running cooldowns. Cooldowns are persisted one record
+ * at a time in a memory-mapped {@link CooldownStore} as they are added, whatever
+ * the storage type; a cooldown that cannot be stored still applies until restart.
+ */
 public class CooldownManager extends FileManager{
+    private static final long EXPIRY_TICK_MILLIS = 1000L;
 
-    private final String PREFIX = "cooldowns";
-    private File cooldownFile;
-    private List<Cooldown> cooldowns;
+    private Map<UUID, Map<Integer, Cooldown>> cooldowns;
+    private TimingWheel<Cooldown> expiry;
+    private CooldownStore store;
+    private BukkitRunnable expiryTask;
+    private BukkitRunnable syncTask;
 
     public CooldownManager(LootCrate plugin) {
         super(plugin);
@@ -26,56 +36,87 @@ public class CooldownManager extends FileManager{
 
     @Override
     public void enable() {
-        this.cooldowns = new ArrayList<>();
+        this.cooldowns = new HashMap<>();
+        this.expiry = new TimingWheel<>(EXPIRY_TICK_MILLIS, System.currentTimeMillis());
         loadFile();
+
+        expiryTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                expiry.advance(System.currentTimeMillis(), CooldownManager.this::evict);
+            }
+        };
+        expiryTask.runTaskTimer(getPlugin(), 20L, 20L);
+
+        // forcing the mapping waits on the disk, keep it off the main thread
+        syncTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                store.sync();
+            }
+        };
+        syncTask.runTaskTimerAsynchronously(getPlugin(), 20L, 20L);
     }
 
     @Override
     public void disable() {
-        saveFile();
+        if (expiryTask != null) {
+            expiryTask.cancel();
+        }
+        if (syncTask != null) {
+            syncTask.cancel();
+        }
+        store.close();
     }
 
     private void loadFile() {
-        cooldownFile = createFile(FileType.COOLDOWNS);
-        FileConfiguration configuration = getConfiguration(cooldownFile);
-
-        if (configuration.contains(PREFIX)) {
-            List<Map<String, Object>> serializedCooldowns = (List<Map<String, Object>>) configuration.getList(PREFIX);
-
-
-            for (Map<String, Object> serializedCooldown : serializedCooldowns) {
-                Cooldown cooldown = new Cooldown(serializedCooldown);
-                cooldowns.add(cooldown);
+        store = new CooldownStore(getPlugin(), getFile(FileType.COOLDOWN_STORE));
+        if(store.open()) {
+            // first start with the store, import the cooldowns of cooldowns.yml once
+            YamlStorageBackend legacy = new YamlStorageBackend(getPlugin());
+            legacy.open();
+            for(Cooldown cooldown : legacy.loadCooldowns()) {
+                if(!cooldown.isOver()) store.write(cooldown);
             }
         }
-    }
-
-    private void saveFile() {
-        FileConfiguration configuration = getConfiguration(cooldownFile);
-
-        List<Map<String, Object>> serializedCooldowns = new ArrayList<>();
-        for (Cooldown cooldown : cooldowns) {
-            serializedCooldowns.add(cooldown.serialize());
+        for(Cooldown cooldown : store.load()) {
+            put(cooldown);
         }
-
-        configuration.set(PREFIX, serializedCooldowns);
-        saveFile(cooldownFile, configuration);
     }
 
+    private void put(Cooldown cooldown) {
+        cooldowns.computeIfAbsent(cooldown.getUuid(), key -> new HashMap<>()).put(cooldown.getCrateId(), cooldown);
+        expiry.schedule(cooldown, cooldown.getExpiresAt());
+    }
 
+    /**
+     * Removes a cooldown from the table, unless it was replaced by a newer one
+     */
+    private void evict(Cooldown cooldown) {
+        Map<Integer, Cooldown> playerCooldowns = cooldowns.get(cooldown.getUuid());
+        if(playerCooldowns == null) return;
+        if(!playerCooldowns.remove(cooldown.getCrateId(), cooldown)) return;
+        if(playerCooldowns.isEmpty()) cooldowns.remove(cooldown.getUuid());
+    }
 
     public void addCooldown(UUID playerUUID, Crate crate) {
         int cooldownTime = (int) crate.getOption(CrateOptionType.COOLDOWN).getValue();
         if(cooldownTime == 0) return;
         Cooldown cooldown = new Cooldown(playerUUID, crate.getId(), System.currentTimeMillis(), cooldownTime);
-        cooldowns.add(cooldown);
+        put(cooldown);
+        try {
+            store.write(cooldown);
+        } catch (StorageException e) {
+            getPlugin().getLogger().log(Level.SEVERE, "Could not store the cooldown of " + playerUUID + " for crate "
+                    + crate.getId() + ".", e);
+        }
     }
 
     public boolean canOpen(UUID playerUUID, Crate crate) {
         Cooldown cooldown = getCooldown(playerUUID, crate);
         if(cooldown == null) return true;
         if(cooldown.isOver()) {
-            cooldowns.remove(cooldown);
+            evict(cooldown);
             return true;
         }
         return false;
@@ -88,18 +129,13 @@ public class CooldownManager extends FileManager{
     }
 
     public Cooldown getCooldown(UUID playerUUID, Crate crate) {
-        for(Cooldown cooldown : cooldowns) {
-            if(cooldown.getUuid().equals(playerUUID) && crate.getId() == cooldown.getCrateId()) return cooldown;
-        }
-        return null;
+        Map<Integer, Cooldown> playerCooldowns = cooldowns.get(playerUUID);
+        return playerCooldowns == null ? null : playerCooldowns.get(crate.getId());
     }
 
     public List<Cooldown> getCooldownsForPlayer(UUID uuid) {
-        List<Cooldown> cooldownList = new ArrayList<>();
-        for(Cooldown cooldown : cooldowns) {
-            if(cooldown.getUuid().equals(uuid)) cooldownList.add(cooldown);
-        }
-        return cooldownList;
+        Map<Integer, Cooldown> playerCooldowns = cooldowns.get(uuid);
+        return playerCooldowns == null ? new ArrayList<>() : new ArrayList<>(playerCooldowns.values());
     }
 
 }
@@ -3,130 +3,652 @@ package lootcrate.managers;
 import lootcrate.LootCrate;
 import lootcrate.enums.FileType;
 import lootcrate.objects.Crate;
+import lootcrate.utils.SnapshotUtils;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.configuration.MemorySection;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
 
+/**
+ * Stores every crate in its own file, "crates/&lt;id&gt;.yml", and writes them
+ * back behind the caller's back. Saves only mark a crate dirty; edits made
+ * within {@link #FLUSH_DELAY_MILLIS} are coalesced and written on a dedicated
+ * I/O thread, rewriting only the files of the crates that changed. Edits whose
+ * file could not be written stay queued and are retried on the next flush.
+ * <p>
+ * After every successful flush the whole catalog is also written to a binary
+ * snapshot, which is loaded instead of the yaml files while every file still
+ * has the size and modification time recorded in it.
+ */
 public class CrateFileManager extends FileManager {
-    private final String CRATE_PREFIX = "crates.";
-    public File crateFile;
+    private static final long FLUSH_DELAY_MILLIS = 1000L;
+    private static final String SHARD_EXTENSION = ".yml";
+
+    private final String CRATE_PREFIX = "crates";
+    public File crateFolder;
+    public File legacyCrateFile;
+    public File snapshotFile;
+
+    private final Object lock = new Object();
+    private final Object writeLock = new Object();
+    private final Map<Integer, Map<String, Object>> pendingSaves = new LinkedHashMap<Integer, Map<String, Object>>();
+    private final Set<Integer> pendingRemovals = new LinkedHashSet<Integer>();
+    private boolean pendingWipe;
+    private boolean flushScheduled;
+    private ScheduledExecutorService ioExecutor;
+    private final Map<Integer, byte[]> encodedCrates = new ConcurrentHashMap<Integer, byte[]>();
 
     public CrateFileManager(LootCrate plugin) {
         super(plugin);
     }
 
     /**
-     * Gets a Crate object of given name from the crates file
+     * Gets a Crate object of given id from its file
      *
-     * @param name Name of the Crate to retrieve
-     * @return The Crate object of the given name or null
+     * @param name Id of the Crate to retrieve
+     * @return The Crate object of the given id or null
      */
     public Crate getCrateFromFile(String name) {
-        FileConfiguration config = this.getPlugin().getManager(FileManager.class).getConfiguration(crateFile);
-        if (config.get(CRATE_PREFIX + name) == null)
+        File file = new File(crateFolder, name + SHARD_EXTENSION);
+        if (!file.exists())
             return null;
-        if (config.get(CRATE_PREFIX + name) instanceof MemorySection) {
-            Map<String, Object> map = new HashMap<String, Object>();
-            MemorySection m = (MemorySection) config.get(CRATE_PREFIX + name);
-            map.put("Id", m.get("Id"));
-            map.put("Name", m.get("Name"));
-            map.put("Options", m.get("Options"));
-            map.put("Key", m.get("Key"));
-            map.put("Items", m.get("Items"));
-            return new Crate(this.getPlugin(), map);
-        } else
-            return new Crate(this.getPlugin(), (Map<String, Object>) config.get(CRATE_PREFIX + name));
+        return deserializeCrate(name, readTree(file));
     }
 
     /**
-     * Gets all the crates that are currently in file
+     * Gets all the crates that are currently in file. Every crate file is parsed
+     * and deserialized on its own worker; a crate that fails to load is reported
+     * and skipped without aborting the others
      *
-     * @return A list of crates
+     * @return A list of crates, ordered by id
      */
     public List<Crate> loadAllCrates() {
-        FileConfiguration config = this.getConfiguration(crateFile);
-        List<Crate> crates = new ArrayList<Crate>();
-        HashMap<String, Object> map = new HashMap<String, Object>();
-        if (config.getConfigurationSection(CRATE_PREFIX) == null)
-            return crates;
-        for (String s : config.getConfigurationSection(CRATE_PREFIX).getKeys(false)) {
-            if (getCrateFromFile(s) != null)
-                crates.add(getCrateFromFile(s));
-            else
-                continue;
+        Map<String, SnapshotUtils.Source> sources = listSources();
+        List<Crate> snapshot = loadSnapshot(sources);
+        if (snapshot != null)
+            return snapshot;
+
+        encodedCrates.clear();
+        AtomicInteger unencoded = new AtomicInteger();
+        File[] files = crateFolder.listFiles((dir, fileName) -> fileName.endsWith(SHARD_EXTENSION));
+        if (files == null)
+            return new ArrayList<Crate>();
+        Arrays.sort(files);
+        AtomicInteger failed = new AtomicInteger();
+
+        List<Crate> crates = Arrays.stream(files).parallel().map(file -> {
+            String key = file.getName().substring(0, file.getName().length() - SHARD_EXTENSION.length());
+            Crate crate;
+            try {
+                crate = deserializeCrate(key, readTree(file));
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                this.getPlugin().getLogger().log(Level.SEVERE, "Could not load crate " + key + " from "
+                        + file.getName() + ": " + e, e);
+                return null;
+            }
+            if (!encode(crate))
+                unencoded.incrementAndGet();
+            return crate;
+        }).filter(Objects::nonNull).collect(Collectors.toList());
+
+        if (failed.get() > 0)
+            this.getPlugin().getLogger().warning("Loaded " + crates.size() + " crate(s), " + failed.get()
+                    + " could not be loaded.");
+        // a snapshot missing crates would hide them on the next start
+        if (failed.get() == 0 && unencoded.get() == 0)
+            runOnIoThread(() -> writeSnapshot(sources));
+        else
+            runOnIoThread(this::deleteSnapshot);
+        return new ArrayList<Crate>(crates);
+    }
+
+    /**
+     * Lists the size and modification time of every crate file
+     *
+     * @return The crate files by file name
+     */
+    private Map<String, SnapshotUtils.Source> listSources() {
+        Map<String, SnapshotUtils.Source> sources = new TreeMap<String, SnapshotUtils.Source>();
+        File[] files = crateFolder.listFiles((dir, fileName) -> fileName.endsWith(SHARD_EXTENSION));
+        for (File file : files == null ? new File[0] : files)
+            sources.put(file.getName(), new SnapshotUtils.Source(file.length(), file.lastModified()));
+        return sources;
+    }
+
+    /**
+     * Loads every crate from the binary snapshot, if no crate file was written,
+     * added or removed since it was built
+     *
+     * @param sources The crate files currently in the crate folder
+     * @return The crates ordered by id, or null if the snapshot is missing, stale
+     * or could not be read
+     */
+    private List<Crate> loadSnapshot(Map<String, SnapshotUtils.Source> sources) {
+        if (!snapshotFile.exists())
+            return null;
+        SnapshotUtils.Catalog catalog;
+        try {
+            catalog = SnapshotUtils.readCatalog(Files.readAllBytes(snapshotFile.toPath()));
+        } catch (IOException e) {
+            this.getPlugin().getLogger().warning("Could not read " + snapshotFile.getName() + " (" + e.getMessage()
+                    + "), loading crates from " + crateFolder.getName() + " instead.");
+            return null;
+        }
+        if (!catalog.getSources().equals(sources))
+            return null;
+        List<byte[]> encoded = catalog.getCrates();
+
+        List<Crate> crates;
+        try {
+            crates = encoded.parallelStream().map(data -> {
+                try {
+                    return SnapshotUtils.decodeCrate(data);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            this.getPlugin().getLogger().log(Level.WARNING, "Could not decode " + snapshotFile.getName()
+                    + ", loading crates from " + crateFolder.getName() + " instead.", e);
+            return null;
+        }
+
+        encodedCrates.clear();
+        for (int i = 0; i < crates.size(); i++)
+            encodedCrates.put(crates.get(i).getId(), encoded.get(i));
+        return new ArrayList<Crate>(crates);
+    }
+
+    /**
+     * Encodes a crate for the snapshot. The crate must not be shared with the
+     * main thread yet, or must be a private copy
+     *
+     * @param crate Crate to encode
+     * @return true if the crate was encoded
+     */
+    private boolean encode(Crate crate) {
+        try {
+            encodedCrates.put(crate.getId(), SnapshotUtils.encodeCrate(crate));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            encodedCrates.remove(crate.getId());
+            this.getPlugin().getLogger().log(Level.WARNING, "Could not encode crate " + crate.getId()
+                    + " for " + snapshotFile.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the snapshot of the crate files as they are now
+     */
+    private void writeSnapshot() {
+        writeSnapshot(listSources());
+    }
+
+    private void writeSnapshot(Map<String, SnapshotUtils.Source> sources) {
+        try {
+            byte[] data = SnapshotUtils.writeCatalog(sources, new TreeMap<Integer, byte[]>(encodedCrates).values());
+            if (!writeFileAtomically(snapshotFile, data))
+                deleteSnapshot();
+        } catch (IOException e) {
+            e.printStackTrace();
+            deleteSnapshot();
+        }
+    }
+
+    private void deleteSnapshot() {
+        try {
+            Files.deleteIfExists(snapshotFile.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void runOnIoThread(Runnable task) {
+        ScheduledExecutorService executor = ioExecutor;
+        if (executor != null && !executor.isShutdown()) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // shut down in between, run it here once the I/O thread is done
+            }
+        }
+        awaitIoThread(executor);
+        synchronized (writeLock) {
+            task.run();
+        }
+    }
+
+    /**
+     * Waits for a shut down I/O thread to finish the task it is running, so
+     * that nothing is written from two threads at once
+     */
+    private void awaitIoThread(ScheduledExecutorService executor) {
+        if (executor == null || !executor.isShutdown())
+            return;
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+                this.getPlugin().getLogger().warning("The crate I/O thread did not stop in time.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Parses a yaml file into plain maps, without deserializing any object so
+     * that the expensive part can be spread across workers
+     *
+     * @param file File to parse
+     * @return The raw root of the file
+     */
+    private Object readTree(File file) {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return new Yaml(new SafeConstructor(options)).load(reader);
+        } catch (IOException e) {
+            throw new YAMLException("could not read " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Builds a Crate from its raw tree. Serialized objects are deserialized
+     * bottom-up, the same way Bukkit's yaml loader does, then the crate is
+     * wrapped in a section so the Crate constructor reads it as before
+     *
+     * @param key  Key of the crate, used in error messages
+     * @param tree Raw tree of the crate
+     * @return The deserialized Crate
+     */
+    @SuppressWarnings("unchecked")
+    private Crate deserializeCrate(String key, Object tree) {
+        Object resolved = deserializeTree(tree);
+        if (!(resolved instanceof Map))
+            throw new IllegalArgumentException("crate " + key + " is not a section");
+
+        MemorySection m = (MemorySection) new MemoryConfiguration().createSection(key, (Map<String, Object>) resolved);
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("Id", m.get("Id"));
+        map.put("Name", m.get("Name"));
+        map.put("Options", m.get("Options"));
+        map.put("Key", m.get("Key"));
+        map.put("Items", m.get("Items"));
+        return new Crate(this.getPlugin(), map);
+    }
+
+    private Object deserializeTree(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                map.put(String.valueOf(entry.getKey()), deserializeTree(entry.getValue()));
+            if (map.containsKey(ConfigurationSerialization.SERIALIZED_TYPE_KEY))
+                return ConfigurationSerialization.deserializeObject(map);
+            return map;
         }
-        return crates;
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<Object>();
+            for (Object element : (List<?>) value)
+                list.add(deserializeTree(element));
+            return list;
+        }
+        return value;
     }
 
     /**
-     * Saves the given Crate to the "crates.yml" file
+     * Saves the given Crate to its file. The crate is snapshotted now and written
+     * on the next flush
      *
      * @param crate The Crate to be saved
      */
     public void saveCrate(Crate crate) {
-        FileConfiguration config = this.getPlugin().getManager(FileManager.class).getConfiguration(crateFile);
-        config.set(CRATE_PREFIX + crate.getId(), crate.serialize());
-        saveFile(config);
+        Map<String, Object> snapshot = snapshot(crate);
+        synchronized (lock) {
+            pendingRemovals.remove(crate.getId());
+            pendingSaves.put(crate.getId(), snapshot);
+            scheduleFlush();
+        }
     }
 
     /**
      * Saves the given Crate as a replacement for the given name To be used only
-     * for Crate renaming
+     * for Crate renaming. Files are named after the crate id, which a rename
+     * keeps, so this is a plain save
      *
      * @param oldName Name to override
      * @param crate   Crate to save
      */
     public void overrideSave(String oldName, Crate crate) {
-        FileConfiguration config = this.getPlugin().getManager(FileManager.class).getConfiguration(crateFile);
-        config.set(CRATE_PREFIX + oldName, null);
-        config.set(CRATE_PREFIX + crate.getId(), crate.serialize());
-        saveFile(config);
+        saveCrate(crate);
     }
 
     /**
-     * Removes the given Crate from the "crates.yml" file
+     * Removes the file of the given Crate
      *
      * @param crate The Crate to be remove
      */
     public void removeCrate(Crate crate) {
-        FileConfiguration config = this.getPlugin().getManager(FileManager.class).getConfiguration(crateFile);
-        config.set(CRATE_PREFIX + crate.getId(), null);
-        saveFile(config);
+        synchronized (lock) {
+            pendingSaves.remove(crate.getId());
+            pendingRemovals.add(crate.getId());
+            scheduleFlush();
+        }
     }
 
     /**
-     * Loads the files into the variables
+     * Replaces every crate file with the given crates, removing the files of
+     * crates that are not in the collection
+     *
+     * @param crates The crates that should be stored
      */
-    private void loadFiles() {
-        crateFile = this.getPlugin().getManager(FileManager.class).getFile(FileType.CRATES);
+    public void saveAllCrates(Collection<Crate> crates) {
+        Map<Integer, Map<String, Object>> snapshots = new LinkedHashMap<Integer, Map<String, Object>>();
+        for (Crate crate : crates)
+            snapshots.put(crate.getId(), snapshot(crate));
+
+        synchronized (lock) {
+            pendingWipe = true;
+            pendingRemovals.clear();
+            pendingSaves.clear();
+            pendingSaves.putAll(snapshots);
+            scheduleFlush();
+        }
     }
 
     /**
-     * Saves the file with the given configuration
+     * Blocks until every pending edit has been written to disk
+     */
+    public void flush() {
+        ScheduledExecutorService executor = ioExecutor;
+        if (executor != null && !executor.isShutdown()) {
+            try {
+                executor.submit(this::writePending).get();
+                return;
+            } catch (RejectedExecutionException ignored) {
+                // shut down in between, flush here once the I/O thread is done
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+                return;
+            }
+        }
+        awaitIoThread(executor);
+        writePending();
+    }
+
+    /**
+     * Schedules a flush at the end of the current window, if none is scheduled.
+     * Must be called while holding the lock
+     */
+    private void scheduleFlush() {
+        if (flushScheduled || ioExecutor == null || ioExecutor.isShutdown())
+            return;
+        flushScheduled = true;
+        ioExecutor.schedule(this::writePending, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the file of every dirty crate and deletes the files of removed ones.
+     * The edits that could not be written are queued again, unless a newer edit
+     * of the same crate was queued in the meantime
+     */
+    private void writePending() {
+        synchronized (writeLock) {
+            writePendingLocked();
+        }
+    }
+
+    private void writePendingLocked() {
+        Map<Integer, Map<String, Object>> saves;
+        Set<Integer> removals;
+        boolean wipe;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (!pendingWipe && pendingSaves.isEmpty() && pendingRemovals.isEmpty())
+                return;
+            saves = new LinkedHashMap<Integer, Map<String, Object>>(pendingSaves);
+            removals = new LinkedHashSet<Integer>(pendingRemovals);
+            wipe = pendingWipe;
+            pendingSaves.clear();
+            pendingRemovals.clear();
+            pendingWipe = false;
+        }
+
+        Map<Integer, Map<String, Object>> failedSaves = new LinkedHashMap<Integer, Map<String, Object>>();
+        Set<Integer> failedRemovals = new LinkedHashSet<Integer>();
+        if (wipe) {
+            encodedCrates.clear();
+            File[] files = crateFolder.listFiles((dir, fileName) -> fileName.endsWith(SHARD_EXTENSION));
+            for (File file : files == null ? new File[0] : files) {
+                Integer id = idOf(file);
+                if (!saves.containsKey(id) && !deleteShard(file) && id != null)
+                    failedRemovals.add(id);
+            }
+        }
+        for (int id : removals) {
+            encodedCrates.remove(id);
+            if (!deleteShard(getShard(id)))
+                failedRemovals.add(id);
+        }
+
+        int failed = failedRemovals.size();
+        boolean encoded = true;
+        for (Map.Entry<Integer, Map<String, Object>> entry : saves.entrySet()) {
+            if (!writeShard(getShard(entry.getKey()), entry.getValue())) {
+                failedSaves.put(entry.getKey(), entry.getValue());
+                failed++;
+                continue;
+            }
+            // rebuilding the crate from its tree gives a private copy that is safe to encode here
+            try {
+                encoded &= encode(deserializeCrate(String.valueOf(entry.getKey()), entry.getValue()));
+            } catch (RuntimeException e) {
+                encoded = false;
+            }
+        }
+
+        if (failed > 0) {
+            this.getPlugin().getLogger().severe("Could not write " + failed + " crate file(s) in "
+                    + crateFolder.getName() + ", they will be retried.");
+            requeue(failedSaves, failedRemovals);
+        }
+        if (failed == 0 && encoded)
+            writeSnapshot();
+        else
+            deleteSnapshot();
+    }
+
+    private void requeue(Map<Integer, Map<String, Object>> saves, Set<Integer> removals) {
+        synchronized (lock) {
+            for (Map.Entry<Integer, Map<String, Object>> entry : saves.entrySet())
+                if (!pendingRemovals.contains(entry.getKey()))
+                    pendingSaves.putIfAbsent(entry.getKey(), entry.getValue());
+            for (int id : removals)
+                if (!pendingSaves.containsKey(id))
+                    pendingRemovals.add(id);
+            scheduleFlush();
+        }
+    }
+
+    private File getShard(int id) {
+        return new File(crateFolder, id + SHARD_EXTENSION);
+    }
+
+    private Integer idOf(File shard) {
+        try {
+            return Integer.valueOf(shard.getName().substring(0, shard.getName().length() - SHARD_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean writeShard(File shard, Map<String, Object> tree) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : tree.entrySet())
+            config.set(entry.getKey(), entry.getValue());
+        return saveFileAtomically(shard, config);
+    }
+
+    private boolean deleteShard(File shard) {
+        try {
+            Files.deleteIfExists(shard.toPath());
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Copies a crate into plain maps and lists so it can be written from another
+     * thread while the original keeps being edited
      *
-     * @param config Configuration to save to file
+     * @param crate Crate to copy
+     * @return The serialized copy of the crate
      */
-    private void saveFile(FileConfiguration config) {
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> snapshot(Crate crate) {
+        return (Map<String, Object>) snapshot((Object) crate.serialize());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object snapshot(Object value) {
+        if (value instanceof ConfigurationSerializable) {
+            ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias(serializable.getClass()));
+            map.putAll((Map<String, Object>) snapshot(serializable.serialize()));
+            return map;
+        }
+        if (value instanceof Map) {
+            Map<String, Object> map = new LinkedHashMap<String, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                map.put(String.valueOf(entry.getKey()), snapshot(entry.getValue()));
+            return map;
+        }
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<Object>();
+            for (Object element : (List<?>) value)
+                list.add(snapshot(element));
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * Splits the legacy "crates.yml" file into one file per crate, then renames
+     * it so the migration only ever runs once. The raw trees are copied as they
+     * are, nothing is deserialized
+     */
+    private void migrateLegacyFile() {
+        if (!legacyCrateFile.exists())
+            return;
+
+        Object root;
+        try {
+            root = readTree(legacyCrateFile);
+        } catch (YAMLException e) {
+            this.getPlugin().getLogger().log(Level.SEVERE, "Could not migrate " + legacyCrateFile.getName()
+                    + ", it was left in place.", e);
+            return;
+        }
+
+        int migrated = 0;
+        boolean complete = true;
+        Object section = root instanceof Map ? ((Map<?, ?>) root).get(CRATE_PREFIX) : null;
+        if (section instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) section).entrySet()) {
+                if (!(entry.getValue() instanceof Map))
+                    continue;
+                Map<String, Object> tree = new LinkedHashMap<String, Object>();
+                for (Map.Entry<?, ?> field : ((Map<?, ?>) entry.getValue()).entrySet())
+                    tree.put(String.valueOf(field.getKey()), field.getValue());
+
+                Object id = tree.get("Id") != null ? tree.get("Id") : entry.getKey();
+                if (writeShard(new File(crateFolder, id + SHARD_EXTENSION), tree))
+                    migrated++;
+                else
+                    complete = false;
+            }
+        }
+
+        if (!complete) {
+            this.getPlugin().getLogger().severe("Could not migrate every crate of " + legacyCrateFile.getName()
+                    + ", it was left in place and the migration will run again on next start.");
+            return;
+        }
         try {
-            config.save(crateFile);
+            Files.move(legacyCrateFile.toPath(), legacyCrateFile.toPath().resolveSibling(legacyCrateFile.getName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             e.printStackTrace();
         }
+        this.getPlugin().getLogger().info("Migrated " + migrated + " crate(s) from " + legacyCrateFile.getName()
+                + " to " + crateFolder.getName() + File.separator + ".");
+    }
+
+    /**
+     * Loads the files into the variables
+     */
+    private void loadFiles() {
+        crateFolder = this.getPlugin().getManager(FileManager.class).getFile(FileType.CRATE_FOLDER);
+        legacyCrateFile = this.getPlugin().getManager(FileManager.class).getFile(FileType.CRATES);
+        snapshotFile = this.getPlugin().getManager(FileManager.class).getFile(FileType.CRATE_SNAPSHOT);
+        if (!crateFolder.exists())
+            crateFolder.mkdirs();
     }
 
     @Override
     public void enable() {
         loadFiles();
+        migrateLegacyFile();
+        ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LootCrate-CrateIO");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void disable() {
-
+        flush();
+        ioExecutor.shutdown();
+        // a retry may have been queued by the last write, write it once the thread is done
+        flush();
     }
 }
@@ -1,24 +1,36 @@
 package lootcrate.managers;
 
+import com.google.common.collect.ImmutableMap;
 import lootcrate.LootCrate;
 import lootcrate.enums.*;
 import lootcrate.managers.LocationManager;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateItem;
-import lootcrate.objects.RandomCollection;
-import lootcrate.utils.SoundUtils;
+import lootcrate.objects.CrateOption;
+import lootcrate.objects.LootTable;
+import lootcrate.objects.OpenProfile;
+import lootcrate.utils.CommandUtils;
+import lootcrate.utils.InventoryUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Sound;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
-import org.bukkit.Particle;
+import java.util.function.IntBinaryOperator;
 
 public class CrateManager extends BasicManager {
+    private final Map<Integer, LootTable> lootTables = new ConcurrentHashMap<Integer, LootTable>();
+    private final Map<Integer, OpenProfile> openProfiles = new ConcurrentHashMap<Integer, OpenProfile>();
 
     /**
      * Constructor for CrateManager
@@ -51,11 +63,51 @@ public class CrateManager extends BasicManager {
      * @return A random CrateItem from the crate
      */
     public CrateItem getRandomItem(Crate crate) {
-        RandomCollection<String> items = new RandomCollection<String>();
+        return getLootTable(crate).next();
+    }
+
+    /**
+     * Retrieves several random CrateItems from the specified crate in one batch
+     *
+     * @param crate  The crate wishing to be searched
+     * @param amount The amount of items to draw
+     * @return A list of random CrateItems from the crate
+     */
+    public List<CrateItem> getRandomItems(Crate crate, int amount) {
+        LootTable table = getLootTable(crate);
+        List<CrateItem> items = new ArrayList<>(amount);
+        for (int i = 0; i < amount; i++)
+            items.add(table.next());
+        return items;
+    }
+
+    /**
+     * Gets the compiled loot table of a crate, building it on first use
+     *
+     * @param crate The crate whose table is wanted
+     * @return The cached LootTable of the crate
+     */
+    public LootTable getLootTable(Crate crate) {
+        return lootTables.computeIfAbsent(crate.getId(), id -> new LootTable(new ArrayList<>(crate.getItems())));
+    }
+
+    /**
+     * Drops the compiled loot table and open profile of a crate so they are
+     * rebuilt on next use
+     *
+     * @param crate The crate whose items or options changed
+     */
+    public void invalidateCompiled(Crate crate) {
+        lootTables.remove(crate.getId());
+        openProfiles.remove(crate.getId());
+    }
 
-        for (CrateItem item : new ArrayList<>(crate.getItems()))
-            items.add(item.getChance(), item);
-        return items.next();
+    /**
+     * Drops every compiled loot table and open profile
+     */
+    public void invalidateAllCompiled() {
+        lootTables.clear();
+        openProfiles.clear();
     }
 
     /**
@@ -67,11 +119,33 @@ public class CrateManager extends BasicManager {
      * @see CrateItem#getMinAmount()
      */
     public int getRandomAmount(CrateItem item) {
+        return randomAmount(item, ThreadLocalRandom.current()::nextInt);
+    }
+
+    /**
+     * Gets a random amount from a crate item using the given generator
+     *
+     * @param item   The CrateItem whos amount you want
+     * @param random Generator owned by the calling thread
+     * @return A random amount between getMinAmount() and getMaxAmount()
+     * @see #getRandomAmount(CrateItem)
+     */
+    public int getRandomAmount(CrateItem item, SplittableRandom random) {
+        return randomAmount(item, random::nextInt);
+    }
+
+    /**
+     * Picks an amount between the bounds of an item
+     *
+     * @param item    The CrateItem whos amount you want
+     * @param nextInt Draws a number from an inclusive origin to an exclusive bound
+     */
+    private static int randomAmount(CrateItem item, IntBinaryOperator nextInt) {
         if (item.getMaxAmount() < item.getMinAmount())
             return 1;
         if(item.getMaxAmount() == item.getMinAmount())
             return item.getMinAmount();
-        return ThreadLocalRandom.current().nextInt(item.getMinAmount(), item.getMaxAmount() + 1);
+        return nextInt.applyAsInt(item.getMinAmount(), item.getMaxAmount() + 1);
     }
 
     /**
@@ -81,97 +155,117 @@ public class CrateManager extends BasicManager {
      * @param p Player to open crate for
      */
     public void crateOpenEffects(Crate crate, Player p) {
-        // Effets visuels spéciaux à l'ouverture
-        org.bukkit.configuration.ConfigurationSection effectSection = this.getPlugin().getConfig().getConfigurationSection("effect");
-        if (effectSection != null && effectSection.contains(crate.getName())) {
-            String effect = effectSection.getString(crate.getName());
-            if (effect != null) {
-                // Pour chaque position de la caisse
-                List<org.bukkit.Location> locations = this.getPlugin().getManager(LocationManager.class).getCrateLocations(crate);
-                for (org.bukkit.Location loc : locations) {
-                    org.bukkit.Location effectLoc = loc.clone().add(0.5, 1, 0.5);
-                    // Effets visuels avancés
-                    if (effect.equalsIgnoreCase("explosion")) {
-                        effectLoc.getWorld().spawnParticle(Particle.EXPLOSION, effectLoc, 1, 0, 0, 0, 0);
-                    } else if (effect.equalsIgnoreCase("thunder") || effect.equalsIgnoreCase("lightning")) {
-                        // Effet d'éclair avec particules et son
-                        effectLoc.getWorld().spawnParticle(Particle.EXPLOSION, effectLoc, 3, 0.5, 0.5, 0.5, 0.1);
-                        effectLoc.getWorld().playSound(effectLoc, Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1.0f, 1.0f);
-                        effectLoc.getWorld().playSound(effectLoc, Sound.ENTITY_LIGHTNING_BOLT_IMPACT, 1.0f, 1.0f);
-                    } else if (effect.equalsIgnoreCase("enchant")) {
-                        effectLoc.getWorld().spawnParticle(Particle.ENCHANT, effectLoc, 50, 1, 1, 1, 0.5);
-                    } else if (effect.equalsIgnoreCase("flame")) {
-                        effectLoc.getWorld().spawnParticle(Particle.FLAME, effectLoc, 30, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("heart")) {
-                        effectLoc.getWorld().spawnParticle(Particle.HEART, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("totem")) {
-                        effectLoc.getWorld().spawnParticle(Particle.TOTEM_OF_UNDYING, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("note")) {
-                        effectLoc.getWorld().spawnParticle(Particle.NOTE, effectLoc, 15, 0.5, 0.5, 0.5, 1);
-                    } else if (effect.equalsIgnoreCase("smoke")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SMOKE, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("crit")) {
-                        effectLoc.getWorld().spawnParticle(Particle.CRIT, effectLoc, 25, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("happy_villager")) {
-                        effectLoc.getWorld().spawnParticle(Particle.HAPPY_VILLAGER, effectLoc, 15, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("angry_villager")) {
-                        effectLoc.getWorld().spawnParticle(Particle.ANGRY_VILLAGER, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("cloud")) {
-                        effectLoc.getWorld().spawnParticle(Particle.CLOUD, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("lava")) {
-                        effectLoc.getWorld().spawnParticle(Particle.LAVA, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("drip_lava")) {
-                        effectLoc.getWorld().spawnParticle(Particle.DRIPPING_LAVA, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("drip_water")) {
-                        effectLoc.getWorld().spawnParticle(Particle.DRIPPING_WATER, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("portal")) {
-                        effectLoc.getWorld().spawnParticle(Particle.PORTAL, effectLoc, 40, 1, 1, 1, 0.2);
-                    } else if (effect.equalsIgnoreCase("dragon_breath")) {
-                        effectLoc.getWorld().spawnParticle(Particle.DRAGON_BREATH, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("spit")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SPIT, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("sneeze")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SNEEZE, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("firework")) {
-                        effectLoc.getWorld().spawnParticle(Particle.FIREWORK, effectLoc, 30, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("ash")) {
-                        effectLoc.getWorld().spawnParticle(Particle.ASH, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("soul")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SOUL, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("soul_fire")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SOUL_FIRE_FLAME, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("snowflake")) {
-                        effectLoc.getWorld().spawnParticle(Particle.SNOWFLAKE, effectLoc, 20, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("slime")) {
-                        effectLoc.getWorld().spawnParticle(Particle.ITEM_SLIME, effectLoc, 10, 0.5, 0.5, 0.5, 0.01);
-                    } else if (effect.equalsIgnoreCase("bubble")) {
-                        effectLoc.getWorld().spawnParticle(Particle.BUBBLE, effectLoc, 15, 0.5, 0.5, 0.5, 0.01);
-                    }
-                }
-            }
+        OpenProfile profile = getOpenProfile(crate);
+        if (profile.hasEffect())
+            for (org.bukkit.Location loc : this.getPlugin().getManager(LocationManager.class).getCrateLocations(crate))
+                profile.playEffect(loc);
+        profile.playFor(p);
+    }
+
+    /**
+     * Gets the compiled open profile of a crate, building it on first use
+     *
+     * @param crate The crate whose profile is wanted
+     * @return The cached OpenProfile of the crate
+     */
+    public OpenProfile getOpenProfile(Crate crate) {
+        return openProfiles.computeIfAbsent(crate.getId(), id -> OpenProfile.compile(crate,
+                this.getPlugin().getConfig().getString("effect." + crate.getName()),
+                this.getPlugin().getManager(MessageManager.class).getPrefix()));
+    }
+
+    /**
+     * Opens several keys of a crate at once, without any animation. Virtual keys
+     * are used first when allowed, then physical keys from the player's inventory.
+     *
+     * @param crate     Crate to open
+     * @param p         Player to open crate for
+     * @param requested Maximum amount of keys to open
+     * @return The amount of keys that were opened
+     */
+    public int openBulk(Crate crate, Player p, int requested) {
+        MessageManager messageManager = this.getPlugin().getManager(MessageManager.class);
+        CooldownManager cooldownManager = this.getPlugin().getManager(CooldownManager.class);
+
+        if (getLootTable(crate).isEmpty()) {
+            messageManager.sendMessage(p, Message.LOOTCRATE_OPEN_BULK_NO_ITEMS,
+                    ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.CRATE_ID, crate.getId() + ""));
+            return 0;
         }
-        // play sound
-        if (crate.getOption(CrateOptionType.OPEN_SOUND).getValue() != null) {
-            if (crate.getOption(CrateOptionType.OPEN_SOUND).getValue().toString().equalsIgnoreCase("none"))
-                return;
-            if (SoundUtils.valueOf((String) crate.getOption(CrateOptionType.OPEN_SOUND).getValue()) == null)
-                return;
-            int soundVolume = 1;
-            if (crate.getOption(CrateOptionType.SOUND_VOLUME) != null)
-                soundVolume = (int) crate.getOption(CrateOptionType.SOUND_VOLUME).getValue();
-            Sounds sound = SoundUtils.valueOf((String) crate.getOption(CrateOptionType.OPEN_SOUND).getValue());
-            SoundUtils.playSound(p, sound, soundVolume, 1);
+        if (requested <= 0) {
+            messageManager.sendMessage(p, Message.LOOTCRATE_OPEN_BULK_NO_KEYS,
+                    ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.CRATE_ID, crate.getId() + ""));
+            return 0;
         }
 
-        // get message, send it
-        if (crate.getOption(CrateOptionType.OPEN_MESSAGE).getValue() != null) {
-            if (crate.getOption(CrateOptionType.OPEN_MESSAGE).getValue().toString().equalsIgnoreCase("none"))
-                return;
-            p.sendMessage(this.getPlugin().getManager(MessageManager.class).getPrefix()
-                    + ChatColor.translateAlternateColorCodes('&', crate.getOption(CrateOptionType.OPEN_MESSAGE)
-                    .getValue().toString().replace("{crate_name}", crate.getName())));
+        boolean cooldownOverride = CommandUtils.hasCooldownOverride(crate, p);
+        if (!cooldownOverride && !cooldownManager.canOpen(p.getUniqueId(), crate)) {
+            messageManager.sendMessage(p, Message.LOOTCRATE_COOLDOWN_IN_EFFECT,
+                    ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.TIME, cooldownManager.timeLeft(p.getUniqueId(), crate) + ""));
+            return 0;
+        }
+
+        // a crate with a cooldown can only be opened once per cooldown
+        CrateOption cooldown = crate.getOption(CrateOptionType.COOLDOWN);
+        if (!cooldownOverride && cooldown != null && (int) cooldown.getValue() > 0)
+            requested = 1;
+
+        int opened = 0;
+        if ((boolean) this.getPlugin().getManager(OptionManager.class).valueOf(Option.ALLOW_VIRTUAL_KEYS))
+            opened += this.getPlugin().getManager(KeyCacheManager.class).remove(p.getUniqueId(), crate, requested);
+        opened += InventoryUtils.removeKeys(this.getPlugin(), p.getInventory(), crate, requested - opened);
+
+        if (opened == 0) {
+            messageManager.sendMessage(p, Message.LOOTCRATE_OPEN_BULK_NO_KEYS,
+                    ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.CRATE_ID, crate.getId() + ""));
+            return 0;
         }
+        p.updateInventory();
 
+        crateOpenEffects(crate, p);
+        cooldownManager.addCooldown(p.getUniqueId(), crate);
+        giveRewards(getRandomItems(crate, opened), p, crate);
+        return opened;
+    }
+
+    /**
+     * Gives a batch of rewards at once. Identical items are merged into full stacks
+     * and inserted in a single call, anything that does not fit is dropped at the
+     * player's feet, and one summary message is sent instead of one per reward.
+     *
+     * @param crateItems The rewards that were drawn
+     * @param p          Player to give the rewards to
+     * @param crate      Crate the rewards come from
+     */
+    public void giveRewards(List<CrateItem> crateItems, Player p, Crate crate) {
+        Map<ItemStack, Integer> amounts = new LinkedHashMap<>();
+        Set<CrateItem> won = new LinkedHashSet<>();
+        int itemAmount = 0;
+
+        for (CrateItem crateItem : crateItems) {
+            int rnd = getRandomAmount(crateItem);
+
+            if (!crateItem.isDisplay()) {
+                ItemStack single = crateItem.getItem().clone();
+                int total = rnd * single.getAmount();
+                single.setAmount(1);
+                amounts.merge(single, total, Integer::sum);
+                itemAmount += total;
+                won.add(crateItem);
+            }
+
+            executeItemCommands(crateItem, p, crate.getName(), rnd);
+        }
+
+        for (ItemStack leftover : p.getInventory().addItem(InventoryUtils.toStacks(amounts)).values())
+            p.getWorld().dropItemNaturally(p.getLocation(), leftover);
+
+        for (CrateItem crateItem : won)
+            handleItemWinBroadcast(crateItem, p, crate.getName(), crate);
+
+        this.getPlugin().getManager(MessageManager.class).sendMessage(p, Message.LOOTCRATE_OPEN_BULK_SUMMARY,
+                ImmutableMap.of(Placeholder.CRATE_NAME, crate.getName(), Placeholder.KEY_AMOUNT, crateItems.size() + "",
+                        Placeholder.ITEM_AMOUNT, itemAmount + ""));
     }
 
     public void giveReward(CrateItem crateItem, Player p, String crateName, Crate crate) {
@@ -250,11 +344,7 @@ public class CrateManager extends BasicManager {
 
     public Crate getCrateFromItemID(int id)
     {
-        List<Crate> crates = this.getPlugin().getManager(CacheManager.class).getCache();
-        for(Crate crate : crates)
-            for(CrateItem item : crate.getItems())
-                if(item.getId() == id) return crate;
-        return null;
+        return this.getPlugin().getManager(CacheManager.class).getCrateByItemId(id);
     }
 
     @Override
@@ -7,6 +7,11 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 public class FileManager extends BasicManager {
 
@@ -50,4 +55,43 @@ public class FileManager extends BasicManager {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Saves the configuration to a temporary file first, then renames it over the
+     * target so the target is never left half written
+     *
+     * @param file File to save to
+     * @param fileConfiguration Configuration to save
+     * @return true if the file was written
+     */
+    public boolean saveFileAtomically(File file, FileConfiguration fileConfiguration)
+    {
+        return writeFileAtomically(file, fileConfiguration.saveToString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the bytes to a temporary file first, then renames it over the target
+     *
+     * @param file File to write to
+     * @param data Content of the file
+     * @return true if the file was written
+     */
+    public boolean writeFileAtomically(File file, byte[] data)
+    {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 }
@@ -15,12 +15,14 @@ import org.bukkit.Location;
 import org.bukkit.block.Block;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class HologramManager extends BasicManager implements Manager {
     private final OptionManager optionManager;
-    private final LocationManager locationManager;
-    private List<Hologram> holograms;
+    private final ActivationManager activationManager;
+    private final Map<Location, Hologram> holograms;
 
     /**
      * Constructor for HolographicDisplaysManager
@@ -30,8 +32,8 @@ public class HologramManager extends BasicManager implements Manager {
     public HologramManager(LootCrate plugin) {
         super(plugin);
         this.optionManager = plugin.getManager(OptionManager.class);
-        this.locationManager = plugin.getManager(LocationManager.class);
-        this.holograms = new ArrayList<>();
+        this.activationManager = plugin.getManager(ActivationManager.class);
+        this.holograms = new HashMap<>();
     }
 
     public void createHologram(Block block, Crate crate) {
@@ -46,26 +48,48 @@ public class HologramManager extends BasicManager implements Manager {
                     crate.getName().replace("{crate_id}", "" + crate.getId())));
         }
         Hologram hologram = DHAPI.createHologram(ObjUtils.getRandomString(5), block.getLocation().clone().add(xOffset, yOffset, zOffset), false, lines);
-        holograms.add(hologram);
+        Hologram replaced = holograms.put(block.getLocation(), hologram);
+        if (replaced != null)
+            replaced.delete();
     }
 
+    /**
+     * Spawns the hologram of a crate that became active, if it has none yet
+     *
+     * @param l     Location of the crate
+     * @param crate The crate
+     */
+    public void show(Location l, Crate crate) {
+        if (l.getWorld() == null || holograms.containsKey(blockLocation(l)))
+            return;
+        if ((boolean) crate.getOption(CrateOptionType.HOLOGRAM_ENABLED).getValue())
+            createHologram(l.getBlock(), crate);
+    }
+
+    /**
+     * Removes the hologram of a crate that is no longer active
+     *
+     * @param l Location of the crate
+     */
+    public void hide(Location l) {
+        Hologram hologram = holograms.remove(blockLocation(l));
+        if (hologram != null)
+            hologram.delete();
+    }
+
+    private Location blockLocation(Location l) {
+        return new Location(l.getWorld(), l.getBlockX(), l.getBlockY(), l.getBlockZ());
+    }
+
+    /**
+     * Deletes every hologram and spawns the ones of the active crates again
+     */
     public void reload() {
 
-        for (Hologram holo : holograms)
+        for (Hologram holo : holograms.values())
             holo.delete();
-        for (Location l : locationManager.getLocationList().keySet()) {
-            if (l == null)
-                continue;
-            if (l.getWorld() == null)
-                continue;
-            if (l.getBlock() == null)
-                continue;
-            Crate crate = locationManager.getLocationList().get(l);
-            if (crate == null)
-                continue;
-            if ((boolean) crate.getOption(CrateOptionType.HOLOGRAM_ENABLED).getValue())
-                createHologram(l.getBlock(), crate);
-        }
+        holograms.clear();
+        activationManager.forEachActive(this::show);
 
     }
 
@@ -76,7 +100,8 @@ public class HologramManager extends BasicManager implements Manager {
 
     @Override
     public void disable() {
-        for (Hologram holo : holograms)
+        for (Hologram holo : holograms.values())
             holo.delete();
+        holograms.clear();
     }
 }
@@ -9,7 +9,7 @@ import lootcrate.enums.SortType;
 import lootcrate.gui.frames.types.Frame;
 import lootcrate.objects.Crate;
 import lootcrate.objects.CrateItem;
-import lootcrate.objects.PlayerFrameMatch;
+import lootcrate.objects.FrameSession;
 import lootcrate.utils.InventoryUtils;
 import lootcrate.utils.ItemUtils;
 import org.bukkit.Material;
@@ -21,7 +21,7 @@ import java.util.*;
 
 public class InventoryManager extends BasicManager {
 
-    private final List<PlayerFrameMatch> matches;
+    private final Map<UUID, FrameSession> sessions;
     /**
      * Constructor for InventoryManager
      *
@@ -29,7 +29,7 @@ public class InventoryManager extends BasicManager {
      */
     public InventoryManager(LootCrate plugin) {
         super(plugin);
-        this.matches = new ArrayList<PlayerFrameMatch>();
+        this.sessions = new HashMap<UUID, FrameSession>();
     }
 
     /**
@@ -60,39 +60,68 @@ public class InventoryManager extends BasicManager {
     }
 
 
+    /**
+     * Opens a frame to a player, replacing their session
+     *
+     * @param p     Player to open the frame to
+     * @param frame Frame to open
+     */
     public void openFrame(Player p, Frame frame) {
-        PlayerFrameMatch match = new PlayerFrameMatch(p.getUniqueId(), frame.getId());
-        removeSimilar(match);
         p.openInventory(frame.getInventory());
-        matches.add(match);
+        sessions.put(p.getUniqueId(), new FrameSession(p.getUniqueId(), p.getName(), frame));
     }
 
-    public boolean contains(PlayerFrameMatch match) {
-        for(PlayerFrameMatch m : matches)
-            if(m.getUuid().equals(match.getUuid()) && m.getFrameid() == match.getFrameid()) return true;
-
-        return false;
+    /**
+     * Closes a frame, if it is the one the player has open
+     *
+     * @param p     Player viewing the frame
+     * @param frame Frame to close
+     */
+    public void closeFrame(Player p, Frame frame) {
+        FrameSession session = sessions.get(p.getUniqueId());
+        if (session == null || session.getFrame() != frame)
+            return;
+        sessions.remove(p.getUniqueId());
+        if (p.getOpenInventory().getTopInventory() == frame.getInventory())
+            p.closeInventory();
     }
 
-    public boolean exists(PlayerFrameMatch match)
-    {
-        for(PlayerFrameMatch m : matches)
-            if(m.getUuid().equals(match.getUuid())) return true;
+    /**
+     * Ends the session of a frame whose inventory was closed. Opening the next
+     * frame closes the previous inventory, so only the session of this very
+     * frame is ended, and a frame that is still animating keeps its session
+     * until the animation closes it.
+     *
+     * @param p     Player that closed the inventory
+     * @param frame Frame of the inventory
+     */
+    public void frameClosed(Player p, Frame frame) {
+        FrameSession session = sessions.get(p.getUniqueId());
+        if (session != null && session.getFrame() == frame && !session.isAnimating())
+            sessions.remove(p.getUniqueId());
+    }
 
-        return false;
+    /**
+     * Ends the session of a player that left
+     *
+     * @param uuid the UUID of the player
+     */
+    public void endSession(UUID uuid) {
+        sessions.remove(uuid);
     }
 
-    public void removeSimilar(PlayerFrameMatch match)
-    {
-        if(!exists(match)) return;
-        for(PlayerFrameMatch m : new ArrayList<PlayerFrameMatch>(matches))
-            if(m.getUuid().equals(match.getUuid())) matches.remove(m);
+    /**
+     * Gets the session of a player
+     *
+     * @param uuid the UUID of the player
+     * @return the session, or null if the player has no frame open
+     */
+    public FrameSession getSession(UUID uuid) {
+        return sessions.get(uuid);
     }
 
-    public void closeFrame(Player p, Frame frame) {
-        PlayerFrameMatch match = new PlayerFrameMatch(p.getUniqueId(), frame.getId());
-        if(contains(match)) p.closeInventory();
-        removeSimilar(match);
+    public Collection<FrameSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
     }
 
     @Override
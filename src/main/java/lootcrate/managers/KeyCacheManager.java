@@ -1,25 +1,33 @@
 package lootcrate.managers;
 
 import lootcrate.LootCrate;
-import lootcrate.enums.AnimationStyle;
-import lootcrate.enums.CrateOptionType;
 import lootcrate.enums.FileType;
 import lootcrate.objects.Crate;
-import lootcrate.objects.CrateItem;
-import org.bukkit.Bukkit;
-import org.bukkit.Material;
-import org.bukkit.configuration.file.YamlConfiguration;
+import lootcrate.objects.KeyWallet;
+import lootcrate.storage.KeyLedger;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
+/**
+ * Virtual keys of every player. Each change is appended to a {@link KeyLedger}
+ * as it happens; the storage backend only receives a snapshot of the players
+ * that changed once the ledger grows past {@link #LEDGER_COMPACT_THRESHOLD}.
+ */
 public class KeyCacheManager extends BasicManager {
-    private Map<UUID, List<Integer>> cache;
+    private static final long LEDGER_COMPACT_THRESHOLD = 4L * 1024 * 1024;
+
+    private Map<UUID, KeyWallet> cache;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private KeyLedger ledger;
 
     public KeyCacheManager(LootCrate plugin) {
         super(plugin);
-        cache = new HashMap<>();
+        cache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -30,52 +38,137 @@ public class KeyCacheManager extends BasicManager {
      *
      */
     public void update(UUID uuid, Crate crate) {
-        List<Integer> integerList = new ArrayList<>();
-        integerList.addAll(getCrateIDSByUUID(uuid));
-        integerList.add(crate.getId());
-        cache.put(uuid, integerList);
+        update(uuid, crate, 1);
+    }
+
+    /**
+     * Adds keys for a crate to a player's wallet
+     *
+     * @param uuid the UUID of the player
+     * @param crate the crate the player got the keys to
+     * @param amount the amount of keys
+     */
+    public void update(UUID uuid, Crate crate, int amount) {
+        KeyWallet wallet = getOrCreateWallet(uuid);
+        synchronized (wallet) {
+            wallet.add(crate.getId(), amount);
+            record(uuid, wallet, crate.getId());
+        }
     }
 
     public void remove(UUID uuid, Crate crate) {
-        if(!cache.containsKey(uuid)) return;
+        remove(uuid, crate, 1);
+    }
 
-        List<Integer> integerList = new ArrayList<>(getCrateIDSByUUID(uuid));
-        integerList.remove((Integer) crate.getId());
+    /**
+     * Removes up to the given amount of keys for a crate
+     *
+     * @param uuid the UUID of the player
+     * @param crate the crate the keys belong to
+     * @param amount the maximum amount of keys to remove
+     * @return the amount of keys actually removed
+     */
+    public int remove(UUID uuid, Crate crate, int amount) {
+        KeyWallet wallet = cache.get(uuid);
+        if(wallet == null || amount <= 0) return 0;
 
-        cache.put(uuid, integerList);
+        synchronized (wallet) {
+            int removed = wallet.consume(crate.getId(), amount);
+            if(removed > 0) record(uuid, wallet, crate.getId());
+            return removed;
+        }
+    }
 
+    /**
+     * Moves up to the given amount of keys for a crate from one player to another
+     *
+     * @param from the UUID of the player giving the keys
+     * @param to the UUID of the player receiving the keys
+     * @param crate the crate the keys belong to
+     * @param amount the maximum amount of keys to move
+     * @return the amount of keys actually moved
+     */
+    public int transfer(UUID from, UUID to, Crate crate, int amount) {
+        KeyWallet wallet = cache.get(from);
+        if(wallet == null || amount <= 0) return 0;
+
+        KeyWallet target = getOrCreateWallet(to);
+        int moved = wallet.transfer(target, crate.getId(), amount);
+        if(moved > 0) {
+            record(from, wallet, crate.getId());
+            record(to, target, crate.getId());
+        }
+        return moved;
     }
 
-    public boolean contains(UUID uuid, Crate crate) {
-        if (!cache.containsKey(uuid))
-            return false;
+    /**
+     * Marks a player as changed and journals the new amount of keys for a crate
+     */
+    private void record(UUID uuid, KeyWallet wallet, int crateId) {
+        dirty.add(uuid);
+        if(ledger != null) ledger.append(uuid, crateId, wallet.get(crateId));
+    }
 
-        return cache.get(uuid).contains(crate.getId());
+    /**
+     * Counts the keys a player holds for a crate
+     *
+     * @param uuid the UUID of the player
+     * @param crate the crate to count keys for
+     * @return the amount of virtual keys
+     */
+    public int count(UUID uuid, Crate crate) {
+        KeyWallet wallet = cache.get(uuid);
+        return wallet == null ? 0 : wallet.get(crate.getId());
     }
 
-    private List<Integer> getCrateIDSByUUID(UUID uuid)
+    /**
+     * Counts every key a player holds
+     *
+     * @param uuid the UUID of the player
+     * @return the amount of virtual keys
+     */
+    public int count(UUID uuid) {
+        KeyWallet wallet = cache.get(uuid);
+        return wallet == null ? 0 : wallet.total();
+    }
+
+    public boolean contains(UUID uuid, Crate crate) {
+        return count(uuid, crate) > 0;
+    }
+
+    private KeyWallet getOrCreateWallet(UUID uuid)
     {
-        return cache.get(uuid) == null ? new ArrayList<>() : cache.get(uuid);
+        return cache.computeIfAbsent(uuid, key -> new KeyWallet());
     }
 
-    public List<Crate> getCratesByUUID(UUID uuid)
+    /**
+     * Gets the amount of keys a player holds for every crate that still exists
+     *
+     * @param uuid the UUID of the player
+     * @return amount of keys by crate
+     */
+    public Map<Crate, Integer> getKeyCounts(UUID uuid)
     {
-        List<Crate> crateList = new ArrayList<>();
-        for(int i : getCrateIDSByUUID(uuid))
+        Map<Crate, Integer> counts = new LinkedHashMap<>();
+        KeyWallet wallet = cache.get(uuid);
+        if(wallet == null) return counts;
+
+        for(Map.Entry<Integer, Integer> entry : wallet.toMap().entrySet())
         {
-            if(this.getPlugin().getManager(CacheManager.class).getCrateById(i) != null)
-                crateList.add(this.getPlugin().getManager(CacheManager.class).getCrateById(i));
+            Crate crate = this.getPlugin().getManager(CacheManager.class).getCrateById(entry.getKey());
+            if(crate != null)
+                counts.put(crate, entry.getValue());
         }
-        return crateList;
+        return counts;
     }
 
 
     /**
-     * Gets the cache list
+     * Gets the cache
      *
-     * @return cache list
+     * @return wallets by player
      */
-    public Map<UUID, List<Integer>> getCache() {
+    public Map<UUID, KeyWallet> getCache() {
         return cache;
     }
 
@@ -85,43 +178,74 @@ public class KeyCacheManager extends BasicManager {
     }
 
     /**
-     * Loads the cache
+     * Loads the cache from storage, then replays the ledger on top of it
      */
     public void load() {
-        cache = this.getPlugin().getManager(KeyFileManager.class).loadCache();
+        Map<UUID, Map<Integer, Integer>> stored = this.getPlugin().getManager(KeyFileManager.class).loadCache();
+        Set<UUID> replayed = ledger.replay(stored);
+
+        Map<UUID, KeyWallet> wallets = new ConcurrentHashMap<>();
+        for(Map.Entry<UUID, Map<Integer, Integer>> entry : stored.entrySet())
+        {
+            KeyWallet wallet = new KeyWallet();
+            for(Map.Entry<Integer, Integer> count : entry.getValue().entrySet())
+                wallet.add(count.getKey(), count.getValue());
+            wallets.put(entry.getKey(), wallet);
+        }
+        cache = wallets;
+        dirty.clear();
+        // replayed changes are not in storage yet, the next snapshot must include them
+        dirty.addAll(replayed);
     }
 
     /**
-     * Wipes the Crates file, then saves the full cache into Crates file
+     * Saves the keys of every player whose keys changed since the last snapshot,
+     * then drops the part of the ledger the snapshot covers
      */
     public void save() {
+        ledger.rotate();
+        Map<UUID, Map<Integer, Integer>> changed = takeDirty();
+        if(!changed.isEmpty())
+            this.getPlugin().getManager(KeyFileManager.class).saveCache(changed);
+        ledger.completeCompaction();
+    }
 
+    /**
+     * Compacts the ledger in the background: rotates it, saves a snapshot of the
+     * changed players off the journal thread, then deletes the rotated journal
+     */
+    private void compact() {
+        if(!compacting.compareAndSet(false, true)) return;
 
-        File f = this.getPlugin().getManager(FileManager.class).getFile(FileType.KEYS);
-        YamlConfiguration config = this.getPlugin().getManager(FileManager.class).getConfiguration(f);
-
-        for (String key : config.getKeys(false)) {
-            config.set(key, null);
-        }
-
-        try {
-            config.save(f);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        this.getPlugin().getManager(KeyFileManager.class).saveCache(cache);
+        ledger.rotate();
+        Map<UUID, Map<Integer, Integer>> changed = takeDirty();
+        CompletableFuture.runAsync(() -> {
+            if(!changed.isEmpty())
+                this.getPlugin().getManager(KeyFileManager.class).saveCache(changed);
+        }).whenComplete((ignored, error) -> {
+            if(error != null) {
+                this.getPlugin().getLogger().log(Level.SEVERE, "Could not save a snapshot of the key ledger, it will be retried.", error);
+                dirty.addAll(changed.keySet());
+            } else {
+                ledger.completeCompaction();
+            }
+            compacting.set(false);
+        });
     }
 
-    public List<Crate> convertIntToCrate(UUID uuid)
-    {
-        List<Integer> integerList = new ArrayList<>(getCrateIDSByUUID(uuid));
-        List<Crate> crateList = new ArrayList<>();
-        for(int i : integerList)
+    /**
+     * Copies the wallets of the changed players, clearing each one's flag before
+     * reading it so a concurrent change marks it again
+     */
+    private Map<UUID, Map<Integer, Integer>> takeDirty() {
+        Map<UUID, Map<Integer, Integer>> changed = new HashMap<>();
+        for(UUID uuid : new ArrayList<>(dirty))
         {
-            crateList.add(this.getPlugin().getManager(CacheManager.class).getCrateById(i));
+            dirty.remove(uuid);
+            KeyWallet wallet = cache.get(uuid);
+            changed.put(uuid, wallet == null ? new HashMap<>() : wallet.toMap());
         }
-        return crateList;
+        return changed;
     }
 
     /**
@@ -133,21 +257,24 @@ public class KeyCacheManager extends BasicManager {
 
     @Override
     public void enable() {
+        ledger = new KeyLedger(this.getPlugin().getLogger(), this.getPlugin().getManager(FileManager.class).getFile(FileType.KEY_JOURNAL), LEDGER_COMPACT_THRESHOLD);
         load();
+        ledger.open(this::compact);
     }
 
     @Override
     public void disable() {
-        save();
+        // every change is already in the ledger, which is replayed on the next start
+        ledger.close();
     }
 
     public void displayCache()
     {
         for(UUID uuid : cache.keySet())
         {
-            for(int i : cache.get(uuid))
+            for(Map.Entry<Integer, Integer> entry : cache.get(uuid).toMap().entrySet())
             {
-                System.out.println(i);
+                System.out.println(entry.getKey() + " x" + entry.getValue());
             }
         }
     }
@@ -1,26 +1,50 @@
 package lootcrate.managers;
 
 import lootcrate.LootCrate;
-import lootcrate.enums.FileType;
 import lootcrate.objects.Crate;
-import org.bukkit.Bukkit;
+import lootcrate.objects.CrateBlockIndex;
+import lootcrate.objects.CrateLocation;
+import lootcrate.storage.StorageBackend;
+import lootcrate.storage.StorageException;
 import org.bukkit.Location;
-import org.bukkit.configuration.MemorySection;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
+/**
+ * Crate locations, kept in memory as the source of truth: every stored
+ * location by id, with reverse lookups by block and by crate. Changes are
+ * applied in memory right away and written to the storage backend behind the
+ * caller's back, coalesced over {@link #FLUSH_DELAY_MILLIS} on a dedicated
+ * I/O thread.
+ * <p>
+ * The stored locations and the block index are only changed while holding this
+ * manager's lock, so a change made during an asynchronous reload is either
+ * seen by the reload or applied to the index it publishes.
+ */
 public class LocationManager extends BasicManager {
+    private static final long FLUSH_DELAY_MILLIS = 1000L;
 
     private final Map<Location, Crate> locationList = new LinkedHashMap<Location, Crate>();
+    private volatile Map<Location, Crate> publishedLocations = Collections.emptyMap();
+    private volatile CrateBlockIndex blockIndex = new CrateBlockIndex();
 
     private final CrateManager crateManager;
-    private final String locationPrefix = "locations.";
-    File f;
-    FileConfiguration config;
+    private Map<String, CrateLocation> storedLocations = new LinkedHashMap<String, CrateLocation>();
+    private final Map<String, String> idsByBlock = new HashMap<String, String>();
+    private final Map<Integer, Set<String>> idsByCrate = new HashMap<Integer, Set<String>>();
+
+    private final Object lock = new Object();
+    private final Map<String, CrateLocation> pendingSaves = new LinkedHashMap<String, CrateLocation>();
+    private final Set<String> pendingRemovals = new LinkedHashSet<String>();
+    private boolean flushScheduled;
+    private ScheduledExecutorService ioExecutor;
 
     /**
      * Constructor for LocationManager
@@ -34,13 +58,51 @@ public class LocationManager extends BasicManager {
     }
 
     /**
-     * Reloads the config and repopulates location list
+     * Writes the pending changes, then reloads the stored locations and
+     * repopulates location list. The write, the load and the merge of the
+     * changes made meanwhile run as one task on the I/O thread, so no scheduled
+     * write can take those changes out of the queue in between
      */
     public void reload() {
-        config = this.getPlugin().getManager(FileManager.class).getConfiguration(f);
+        ScheduledExecutorService executor = ioExecutor;
+        if (executor == null || executor.isShutdown()) {
+            load();
+        } else {
+            try {
+                executor.submit(this::load).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                this.getPlugin().getLogger().log(Level.SEVERE, "Could not reload crate locations.", e.getCause());
+                return;
+            }
+        }
         populateLocations();
     }
 
+    private void load() {
+        writePending();
+        Map<String, CrateLocation> loaded = getBackend().loadLocations();
+        synchronized (this) {
+            synchronized (lock) {
+                // changes made since the flush are not in storage yet
+                for (String uuid : pendingRemovals)
+                    loaded.remove(uuid);
+                loaded.putAll(pendingSaves);
+            }
+            storedLocations = loaded;
+            idsByBlock.clear();
+            idsByCrate.clear();
+            for (CrateLocation stored : loaded.values())
+                index(stored);
+        }
+    }
+
+    private StorageBackend getBackend() {
+        return this.getPlugin().getManager(StorageManager.class).getBackend();
+    }
+
     /**
      * Adds a crate to location list/file
      *
@@ -48,19 +110,24 @@ public class LocationManager extends BasicManager {
      * @param crate Crate to be added
      */
     public void addCrateLocation(Location l, Crate crate) {
-        locationList.put(l, crate);
-        UUID randomUUID = UUID.randomUUID();
         String uuid = findUUIDByLocation(l);
-        if (uuid != null)
-            randomUUID = UUID.fromString(uuid);
-        config.set(randomUUID + ".Crate", crate.getId());
-        config.set(randomUUID + ".Location", l.serialize());
-        try {
-            config.save(f);
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (uuid == null)
+            uuid = UUID.randomUUID().toString();
+        CrateLocation stored = new CrateLocation(uuid, crate.getId(), l);
+        synchronized (this) {
+            unindex(uuid);
+            storedLocations.put(uuid, stored);
+            index(stored);
+            locationList.put(l, crate);
+            blockIndex.put(stored.getWorld(), l.getBlockX(), l.getBlockY(), l.getBlockZ(), crate.getId());
+            publishLocations();
+        }
+        invalidateActivation();
+        synchronized (lock) {
+            pendingRemovals.remove(uuid);
+            pendingSaves.put(uuid, stored);
+            scheduleFlush();
         }
-        reload();
     }
 
 
@@ -70,41 +137,49 @@ public class LocationManager extends BasicManager {
      * @param l Location to be removed
      */
     public void removeCrateLocation(Location l) {
-        reload();
-        config = this.getPlugin().getManager(FileManager.class).getConfiguration(f);
         String uuid = findUUIDByLocation(l);
         if (uuid == null)
             return;
-        config.set(uuid, null);
-        locationList.remove(l);
-        try {
-            config.save(f);
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-        reload();
+        remove(uuid);
     }
 
     /**
-     * Removes crate from list/file
+     * Removes every location of a crate from list/file
      *
      * @param crate Crate to be removed
      */
     public void removeCrateLocation(Crate crate) {
-        reload();
-        config = this.getPlugin().getManager(FileManager.class).getConfiguration(f);
-        String uuid = findUUIDByCrate(crate);
-        if (uuid == null)
-            return;
-        config.set(uuid, null);
-        try {
-            config.save(f);
-        } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+        Set<String> ids;
+        synchronized (this) {
+            ids = idsByCrate.get(crate.getId());
+            if (ids == null)
+                return;
+            ids = new LinkedHashSet<String>(ids);
+        }
+        for (String uuid : ids)
+            remove(uuid);
+    }
+
+    private void remove(String uuid) {
+        synchronized (this) {
+            CrateLocation stored = storedLocations.remove(uuid);
+            if (stored == null)
+                return;
+            unindex(stored);
+            int x = Location.locToBlock(stored.getX());
+            int y = Location.locToBlock(stored.getY());
+            int z = Location.locToBlock(stored.getZ());
+            locationList.keySet().removeIf(l -> l.getWorld() != null && l.getWorld().getName().equals(stored.getWorld())
+                    && l.getBlockX() == x && l.getBlockY() == y && l.getBlockZ() == z);
+            blockIndex.remove(stored.getWorld(), x, y, z);
+            publishLocations();
+        }
+        invalidateActivation();
+        synchronized (lock) {
+            pendingSaves.remove(uuid);
+            pendingRemovals.add(uuid);
+            scheduleFlush();
         }
-        reload();
     }
 
     /**
@@ -113,21 +188,10 @@ public class LocationManager extends BasicManager {
      * @param l Location to be searched
      * @return UUID of the location or null
      */
-    public String findUUIDByLocation(Location l) {
-        reload();
-        for (String s : config.getKeys(false)) {
-            MemorySection section = (MemorySection) config.get(s);
-            if (section.get("Location") == null)
-                continue;
-            if (Bukkit.getWorld((String) section.get("Location.world")) == null)
-                continue;
-            Location loc = new Location(Bukkit.getWorld((String) section.get("Location.world")),
-                    (double) section.get("Location.x"), (double) section.get("Location.y"),
-                    (double) section.get("Location.z"));
-            if (l.equals(loc))
-                return s;
-        }
-        return null;
+    public synchronized String findUUIDByLocation(Location l) {
+        if (l.getWorld() == null)
+            return null;
+        return idsByBlock.get(blockKey(l.getWorld().getName(), l.getX(), l.getY(), l.getZ()));
     }
 
     /**
@@ -136,45 +200,229 @@ public class LocationManager extends BasicManager {
      * @param crate Crate to be searched
      * @return UUID of the crate or null
      */
-    public String findUUIDByCrate(Crate crate) {
-        reload();
-        for (String s : config.getKeys(false)) {
-            MemorySection section = (MemorySection) config.get(s);
-            if (section.get("Crate") == null)
-                continue;
-            Crate crate2 = this.getPlugin().getManager(CacheManager.class).getCrateById(section.getInt("Crate"));
-            if (crate2 == null)
-                continue;
-            if (crate.getId() == crate2.getId())
-                return s;
+    public synchronized String findUUIDByCrate(Crate crate) {
+        Set<String> ids = idsByCrate.get(crate.getId());
+        return ids == null || ids.isEmpty() ? null : ids.iterator().next();
+    }
+
+    private void index(CrateLocation stored) {
+        idsByBlock.put(blockKey(stored.getWorld(), stored.getX(), stored.getY(), stored.getZ()), stored.getId());
+        idsByCrate.computeIfAbsent(stored.getCrateId(), key -> new LinkedHashSet<String>()).add(stored.getId());
+    }
+
+    private void unindex(String uuid) {
+        CrateLocation stored = storedLocations.get(uuid);
+        if (stored != null)
+            unindex(stored);
+    }
+
+    private void unindex(CrateLocation stored) {
+        idsByBlock.remove(blockKey(stored.getWorld(), stored.getX(), stored.getY(), stored.getZ()), stored.getId());
+        Set<String> ids = idsByCrate.get(stored.getCrateId());
+        if (ids == null)
+            return;
+        ids.remove(stored.getId());
+        if (ids.isEmpty())
+            idsByCrate.remove(stored.getCrateId());
+    }
+
+    private static String blockKey(String world, double x, double y, double z) {
+        return world + ":" + Location.locToBlock(x) + ":" + Location.locToBlock(y) + ":" + Location.locToBlock(z);
+    }
+
+    /**
+     * Blocks until every pending change has been written to storage
+     */
+    public void flush() {
+        ScheduledExecutorService executor = ioExecutor;
+        if (executor == null || executor.isShutdown()) {
+            writePending();
+            return;
+        }
+        try {
+            executor.submit(this::writePending).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
         }
-        return null;
     }
 
     /**
-     * Populates the location file
+     * Schedules a flush at the end of the current window, if none is scheduled.
+     * Must be called while holding the lock
      */
-    public void populateLocations() {
+    private void scheduleFlush() {
+        if (flushScheduled || ioExecutor == null || ioExecutor.isShutdown())
+            return;
+        flushScheduled = true;
+        ioExecutor.schedule(this::writePending, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the pending changes to storage. Changes that could not be written
+     * are queued again, unless a newer change of the same location was queued
+     * in the meantime
+     */
+    private void writePending() {
+        Map<String, CrateLocation> saves;
+        Set<String> removals;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pendingSaves.isEmpty() && pendingRemovals.isEmpty())
+                return;
+            saves = new LinkedHashMap<String, CrateLocation>(pendingSaves);
+            removals = new LinkedHashSet<String>(pendingRemovals);
+            pendingSaves.clear();
+            pendingRemovals.clear();
+        }
+
+        Map<String, CrateLocation> failedSaves = new LinkedHashMap<String, CrateLocation>();
+        Set<String> failedRemovals = new LinkedHashSet<String>();
+        StorageException error = null;
+        try {
+            StorageBackend backend = getBackend();
+            for (String uuid : removals) {
+                try {
+                    backend.removeLocation(uuid);
+                } catch (StorageException e) {
+                    failedRemovals.add(uuid);
+                    error = e;
+                }
+            }
+            for (CrateLocation stored : saves.values()) {
+                try {
+                    backend.saveLocation(stored);
+                } catch (StorageException e) {
+                    failedSaves.put(stored.getId(), stored);
+                    error = e;
+                }
+            }
+        } catch (RuntimeException e) {
+            this.getPlugin().getLogger().log(Level.SEVERE, "Could not write crate locations, they will be retried.", e);
+            requeue(saves, removals);
+            return;
+        }
+        if (error != null) {
+            this.getPlugin().getLogger().log(Level.SEVERE, "Could not write " + (failedSaves.size() + failedRemovals.size())
+                    + " crate location(s), they will be retried.", error);
+            requeue(failedSaves, failedRemovals);
+        }
+    }
+
+    private void requeue(Map<String, CrateLocation> saves, Set<String> removals) {
+        synchronized (lock) {
+            for (Map.Entry<String, CrateLocation> entry : saves.entrySet())
+                if (!pendingRemovals.contains(entry.getKey()))
+                    pendingSaves.putIfAbsent(entry.getKey(), entry.getValue());
+            for (String uuid : removals)
+                if (!pendingSaves.containsKey(uuid))
+                    pendingRemovals.add(uuid);
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Populates the location list and the block index. Locations in worlds that
+     * are not loaded yet are indexed right away and added to the location list
+     * once their world loads
+     */
+    public synchronized void populateLocations() {
         locationList.clear();
-        for (String s : config.getKeys(false)) {
-            MemorySection section = (MemorySection) config.get(s);
-            Location loc = new Location(Bukkit.getWorld((String) section.get("Location.world")),
-                    (double) section.get("Location.x"), (double) section.get("Location.y"),
-                    (double) section.get("Location.z"));
-            Crate crate = this.getPlugin().getManager(CacheManager.class).getCrateById(section.getInt("Crate"));
-            if (crate == null || loc == null)
+        CrateBlockIndex index = new CrateBlockIndex();
+        for (CrateLocation stored : storedLocations.values()) {
+            Crate crate = this.getPlugin().getManager(CacheManager.class).getCrateById(stored.getCrateId());
+            if (crate == null || stored.getWorld() == null)
                 continue;
-            locationList.put(loc, crate);
+            index.put(stored.getWorld(), Location.locToBlock(stored.getX()), Location.locToBlock(stored.getY()),
+                    Location.locToBlock(stored.getZ()), crate.getId());
+            Location loc = stored.toLocation();
+            if (loc != null)
+                locationList.put(loc, crate);
+        }
+        // reloads run off the main thread, publish the index once it is complete;
+        // changes made meanwhile wait for the lock and are applied to this one
+        blockIndex = index;
+        publishLocations();
+        invalidateActivation();
+    }
+
+    /**
+     * Adds the locations of a world that just loaded to the location list
+     *
+     * @param world World that loaded
+     */
+    public synchronized void bindWorld(World world) {
+        for (CrateLocation stored : storedLocations.values()) {
+            if (!world.getName().equals(stored.getWorld()))
+                continue;
+            Crate crate = this.getPlugin().getManager(CacheManager.class).getCrateById(stored.getCrateId());
+            if (crate != null)
+                locationList.put(new Location(world, stored.getX(), stored.getY(), stored.getZ()), crate);
+        }
+        publishLocations();
+        invalidateActivation();
+    }
+
+    /**
+     * Removes the locations of a world that unloaded from the location list. They
+     * stay indexed and are bound again when the world loads
+     *
+     * @param world World that unloaded
+     */
+    public void unbindWorld(World world) {
+        synchronized (this) {
+            locationList.keySet().removeIf(l -> world.equals(l.getWorld()));
+            publishLocations();
         }
+        invalidateActivation();
+    }
+
+    /**
+     * Publishes an immutable copy of the location list. Must be called while
+     * holding this manager's lock, after every change of the list
+     */
+    private void publishLocations() {
+        publishedLocations = Collections.unmodifiableMap(new LinkedHashMap<Location, Crate>(locationList));
+    }
+
+    private void invalidateActivation() {
+        this.getPlugin().getManager(ActivationManager.class).invalidate();
+    }
+
+    /**
+     * Finds the crate placed at a block with a single lookup in the block index
+     *
+     * @param block Block to check
+     * @return the crate, or null if the block is not a crate
+     */
+    public Crate getCrateAt(Block block) {
+        int crateId = blockIndex.find(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+        if (crateId < 0)
+            return null;
+        return this.getPlugin().getManager(CacheManager.class).getCrateById(crateId);
     }
 
     /**
-     * Returns the location list
+     * Checks if any crate is placed in a chunk
+     *
+     * @param world  World of the chunk
+     * @param chunkX Chunk x
+     * @param chunkZ Chunk z
+     * @return true if at least one crate is in the chunk
+     */
+    public boolean hasCrateInChunk(World world, int chunkX, int chunkZ) {
+        return blockIndex.hasChunk(world.getName(), chunkX, chunkZ);
+    }
+
+    /**
+     * Returns the location list as of the last change. The map is immutable and
+     * read without locking, so the main thread never waits for a reload
      *
      * @return location list of all locations and crates
      */
     public Map<Location, Crate> getLocationList() {
-        return locationList;
+        return publishedLocations;
     }
 
     /**
@@ -183,25 +431,33 @@ public class LocationManager extends BasicManager {
      * @param crate Crate to find locations for
      * @return List of all locations attached to crate
      */
-    public List<Location> getCrateLocations(Crate crate) {
+    public synchronized List<Location> getCrateLocations(Crate crate) {
         List<Location> locations = new ArrayList<Location>();
+        Set<String> ids = idsByCrate.get(crate.getId());
+        if (ids == null)
+            return locations;
 
-        for (Location l : getLocationList().keySet())
-            if (getLocationList().get(l) == crate)
+        for (String uuid : ids) {
+            Location l = storedLocations.get(uuid).toLocation();
+            if (l != null)
                 locations.add(l);
-
+        }
         return locations;
     }
 
     @Override
     public void enable() {
-        f = this.getPlugin().getManager(FileManager.class).getFile(FileType.LOCATIONS);
-        config = this.getPlugin().getManager(FileManager.class).getConfiguration(f);
-        populateLocations();
+        ioExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LootCrate-LocationIO");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reload();
     }
 
     @Override
     public void disable() {
-
+        flush();
+        ioExecutor.shutdown();
     }
 }
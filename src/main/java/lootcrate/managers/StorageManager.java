@@ -0,0 +1,92 @@
+package lootcrate.managers;
+
+import lootcrate.LootCrate;
+import lootcrate.enums.Option;
+import lootcrate.enums.StorageType;
+import lootcrate.storage.H2StorageBackend;
+import lootcrate.storage.JdbcStorageBackend;
+import lootcrate.storage.SQLiteStorageBackend;
+import lootcrate.storage.StorageBackend;
+import lootcrate.storage.StorageException;
+import lootcrate.storage.YamlStorageBackend;
+
+import java.util.logging.Level;
+
+/**
+ * Owns the storage backend selected by the "storage-type" option. The backend
+ * is opened on first use, so managers enabled before this one can already load
+ * from it, and closed when this manager is disabled, after the managers that
+ * store data in it. A database created on first use is filled once from the
+ * YAML files, so switching storage type keeps the existing keys and locations.
+ */
+public class StorageManager extends BasicManager {
+    private StorageBackend backend;
+
+    public StorageManager(LootCrate plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Gets the active storage backend, opening it if needed. Falls back to YAML
+     * if the configured backend cannot be opened
+     *
+     * @return the active backend
+     */
+    public synchronized StorageBackend getBackend() {
+        if (backend != null)
+            return backend;
+
+        String configured = this.getPlugin().getManager(OptionManager.class).valueOf(Option.STORAGE_TYPE);
+        StorageType type = StorageType.fromName(configured);
+        try {
+            backend = create(type);
+            backend.open();
+            if (backend instanceof JdbcStorageBackend && ((JdbcStorageBackend) backend).isCreated())
+                importYaml((JdbcStorageBackend) backend);
+        } catch (StorageException e) {
+            backend.close();
+            this.getPlugin().getLogger().log(Level.SEVERE, "Could not open " + type + " storage, using YAML instead.", e);
+            backend = new YamlStorageBackend(this.getPlugin());
+            backend.open();
+        }
+        this.getPlugin().getLogger().info("Using " + backend.getName() + " storage.");
+        return backend;
+    }
+
+    /**
+     * Copies the keys and locations of the YAML files into a new database
+     */
+    private void importYaml(JdbcStorageBackend database) {
+        StorageBackend yaml = new YamlStorageBackend(this.getPlugin());
+        yaml.open();
+        try {
+            database.importFrom(yaml);
+        } finally {
+            yaml.close();
+        }
+    }
+
+    private StorageBackend create(StorageType type) {
+        switch (type) {
+            case SQLITE:
+                return new SQLiteStorageBackend(this.getPlugin());
+            case H2:
+                return new H2StorageBackend(this.getPlugin());
+            default:
+                return new YamlStorageBackend(this.getPlugin());
+        }
+    }
+
+    @Override
+    public void enable() {
+        getBackend();
+    }
+
+    @Override
+    public synchronized void disable() {
+        if (backend == null)
+            return;
+        backend.close();
+        backend = null;
+    }
+}
@@ -0,0 +1,114 @@
+package lootcrate.objects;
+
+import lootcrate.utils.ParticleUtils;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ambient effect of a crate, compiled once from the "particule" and "effect"
+ * sections of config.yml: everything needed to play it, down to the dust
+ * options, is resolved up front.
+ */
+public final class AmbientEffect {
+
+    public enum Type {
+        DUST(20),
+        EXPLOSION(20),
+        LIGHTNING(100);
+
+        private final int period;
+
+        Type(int period) {
+            this.period = period;
+        }
+    }
+
+    private final Type type;
+    private final Particle particle;
+    private final int count;
+    private final double offsetX;
+    private final double offsetY;
+    private final double offsetZ;
+    private final Particle.DustOptions dust;
+    private final int period;
+
+    private AmbientEffect(Type type, Particle particle, int count, double offsetX, double offsetY, double offsetZ,
+                          Particle.DustOptions dust) {
+        this.type = type;
+        this.particle = particle;
+        this.count = count;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.offsetZ = offsetZ;
+        this.dust = dust;
+        this.period = type.period;
+    }
+
+    /**
+     * Compiles the ambient effects of a crate
+     *
+     * @param color  Dust color from the "particule" section, or null
+     * @param effect Effect name from the "effect" section, or null
+     * @return the effects to play, possibly empty
+     */
+    public static List<AmbientEffect> compile(String color, String effect) {
+        List<AmbientEffect> effects = new ArrayList<AmbientEffect>();
+        if (color != null && !color.equalsIgnoreCase("none")) {
+            Particle.DustOptions dust = ParticleUtils.getDustOptions(color);
+            if (dust != null)
+                effects.add(new AmbientEffect(Type.DUST, Particle.DUST, 10, 0.3, 0.3, 0.3, dust));
+        }
+        if (effect != null) {
+            if (effect.equalsIgnoreCase("explosion"))
+                effects.add(new AmbientEffect(Type.EXPLOSION, Particle.EXPLOSION, 1, 0, 0, 0, null));
+            else if (effect.equalsIgnoreCase("thunder") || effect.equalsIgnoreCase("lightning"))
+                effects.add(new AmbientEffect(Type.LIGHTNING, null, 1, 0, 0, 0, null));
+        }
+        return Collections.unmodifiableList(effects);
+    }
+
+    /**
+     * Plays the effect
+     *
+     * @param l Location to play the effect at, above the crate
+     */
+    public void play(Location l) {
+        switch (type) {
+            case DUST:
+                l.getWorld().spawnParticle(particle, l, count, offsetX, offsetY, offsetZ, 0, dust);
+                break;
+            case EXPLOSION:
+                l.getWorld().spawnParticle(particle, l, count, offsetX, offsetY, offsetZ, 0);
+                break;
+            case LIGHTNING:
+                l.getWorld().strikeLightningEffect(l);
+                break;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the amount of particles one play costs against the tick budget
+     *
+     * @return cost of the effect
+     */
+    public int getCost() {
+        return count;
+    }
+
+    /**
+     * Gets the amount of ticks between two plays
+     *
+     * @return period in ticks
+     */
+    public int getPeriod() {
+        return period;
+    }
+}
@@ -0,0 +1,491 @@
+package lootcrate.objects;
+
+import lootcrate.gui.items.FillerPalette;
+import lootcrate.gui.items.GUIItem;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opening animation compiled from a definition of the "animations" section of
+ * config.yml. A definition is made of palettes of filler items, a path the
+ * rewards move along and keyframes filling slots with a palette; it is
+ * validated and compiled once into the slot updates of every tick, so playing
+ * the animation only copies items into slots.
+ * <p>
+ * The updates are stored tick after tick in two parallel arrays: the target of
+ * an update is a slot, or a position of the path when the path flag is set, and
+ * its source packs a kind with a value: a filler item, a palette to pick a
+ * random item from, or an index in the rewards rolled for the opening.
+ */
+public final class AnimationTimeline {
+
+    public enum PathType {
+        SCROLL,
+        SHUFFLE,
+        REMOVE
+    }
+
+    public interface SlotWriter {
+        void set(int slot, GUIItem item);
+    }
+
+    private static final int PATH = 1 << 16;
+    private static final int KIND_SHIFT = 28;
+    private static final int VALUE_MASK = (1 << KIND_SHIFT) - 1;
+    private static final int ITEM = 0;
+    private static final int RANDOM = 1;
+    private static final int REWARD = 2;
+    private static final int OPEN = -1;
+    private static final int MAX_TICKS = 20 * 60 * 10;
+    private static final int MAX_UPDATES = 1 << 21;
+
+    private final String name;
+    private final String displayName;
+    private final String description;
+    private final Material icon;
+    private final int size;
+    private final int end;
+    private final int close;
+    private final GUIItem[] items;
+    private final int[] palettes;
+    private final int[] pathSlots;
+    private final boolean shuffledPath;
+    private final int rewardCount;
+    private final int winnerIndex;
+    private final int[] starts;
+    private final int[] targets;
+    private final int[] sources;
+
+    private AnimationTimeline(Builder builder) {
+        this.name = builder.name;
+        this.displayName = builder.displayName;
+        this.description = builder.description;
+        this.icon = builder.icon;
+        this.size = builder.size;
+        this.end = builder.end;
+        this.close = builder.close;
+        this.items = builder.items.toArray(new GUIItem[0]);
+        this.palettes = builder.palettes;
+        this.pathSlots = builder.pathSlots;
+        this.shuffledPath = builder.pathType == PathType.REMOVE;
+        this.rewardCount = builder.rewardCount;
+        this.winnerIndex = builder.winnerIndex;
+
+        // counting sort of the updates by tick, keeping their order within a tick
+        int count = builder.count;
+        this.starts = new int[close + 2];
+        for (int i = 0; i < count; i++)
+            starts[builder.ticks[i] + 2]++;
+        for (int i = 2; i < starts.length; i++)
+            starts[i] += starts[i - 1];
+        this.targets = new int[count];
+        this.sources = new int[count];
+        int[] next = Arrays.copyOf(starts, starts.length);
+        for (int i = 0; i < count; i++) {
+            int position = next[builder.ticks[i] + 1]++;
+            targets[position] = builder.targets[i];
+            sources[position] = builder.sources[i];
+        }
+    }
+
+    /**
+     * Validates and compiles an animation definition
+     *
+     * @param name       name of the animation
+     * @param definition section defining the animation
+     * @return the compiled animation
+     * @throws IllegalArgumentException if the definition is not valid
+     */
+    public static AnimationTimeline compile(String name, ConfigurationSection definition) {
+        Builder builder = new Builder(name.toUpperCase());
+        builder.displayName = color(definition.getString("display-name", name));
+        builder.description = color(definition.getString("description", ""));
+        builder.icon = material(definition.getString("icon", Material.ITEM_FRAME.name()), "icon");
+        builder.size = definition.getInt("size", 45);
+        if (builder.size % 9 != 0 || builder.size < 9 || builder.size > 54)
+            throw new IllegalArgumentException("size must be 9, 18, 27, 36, 45 or 54");
+        int duration = definition.getInt("duration", 0);
+        int hold = definition.getInt("hold", 60);
+        if (duration < 0)
+            throw new IllegalArgumentException("duration cannot be negative");
+        // the last step of the path must play before the menu closes
+        if (hold < 1)
+            throw new IllegalArgumentException("hold must be at least 1 tick");
+
+        builder.compilePalettes(definition.getConfigurationSection("palettes"));
+        ConfigurationSection path = definition.getConfigurationSection("path");
+        if (path == null)
+            throw new IllegalArgumentException("path is missing");
+        builder.compilePath(path, duration, hold);
+        for (Map<?, ?> keyframe : definition.getMapList("keyframes"))
+            builder.compileKeyframe(keyframe);
+        return new AnimationTimeline(builder);
+    }
+
+    /**
+     * Plays the updates of a tick
+     *
+     * @param tick    tick of the animation, or -1 for the items shown on opening
+     * @param path    slot of every position of the path for this opening
+     * @param rewards items of the rewards rolled for this opening
+     * @param writer  receives every slot update
+     */
+    public void play(int tick, int[] path, GUIItem[] rewards, SlotWriter writer) {
+        if (tick < OPEN || tick >= close)
+            return;
+        for (int i = starts[tick + 1]; i < starts[tick + 2]; i++) {
+            int target = targets[i];
+            int source = sources[i];
+            int value = source & VALUE_MASK;
+            GUIItem item;
+            switch (source >>> KIND_SHIFT) {
+                case ITEM:
+                    item = items[value];
+                    break;
+                case RANDOM:
+                    item = items[palettes[value] + ThreadLocalRandom.current().nextInt(palettes[value + 1] - palettes[value])];
+                    break;
+                default:
+                    item = rewards[value];
+                    break;
+            }
+            writer.set((target & PATH) != 0 ? path[target & ~PATH] : target, item);
+        }
+    }
+
+    /**
+     * Writes the slots of the path into an array, shuffled if the path removes
+     * its rewards in a random order
+     *
+     * @param path array to fill, as long as the path
+     */
+    public void rollPath(int[] path) {
+        System.arraycopy(pathSlots, 0, path, 0, pathSlots.length);
+        if (!shuffledPath)
+            return;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = path.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = path[i];
+            path[i] = path[j];
+            path[j] = swap;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Material getIcon() {
+        return icon;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the tick the winner is given at
+     *
+     * @return the last tick of the rolling part
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the tick the animation closes at
+     *
+     * @return the end tick plus the time the winner is shown
+     */
+    public int getClose() {
+        return close;
+    }
+
+    public int getPathLength() {
+        return pathSlots.length;
+    }
+
+    public int getRewardCount() {
+        return rewardCount;
+    }
+
+    /**
+     * Gets the index of the winner among the rewards of an opening
+     *
+     * @return index of the winner
+     */
+    public int getWinnerIndex() {
+        return winnerIndex;
+    }
+
+    private static String color(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+
+    private static Material material(String text, String field) {
+        Material material = text == null ? null : Material.matchMaterial(text);
+        if (material == null)
+            throw new IllegalArgumentException("unknown material " + text + " for " + field);
+        return material;
+    }
+
+    private static class Builder {
+        private final String name;
+        private String displayName;
+        private String description;
+        private Material icon;
+        private int size;
+        private int end;
+        private int close;
+        private final List<GUIItem> items = new ArrayList<GUIItem>();
+        private final Map<String, Integer> paletteIds = new HashMap<String, Integer>();
+        private int[] palettes;
+        private PathType pathType;
+        private int[] pathSlots;
+        private int rewardCount;
+        private int winnerIndex;
+        private int[] ticks = new int[64];
+        private int[] targets = new int[64];
+        private int[] sources = new int[64];
+        private int count;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        private void compilePalettes(ConfigurationSection section) {
+            Set<String> names = section == null ? Collections.<String>emptySet() : section.getKeys(false);
+            palettes = new int[names.size() + 1];
+            int id = 0;
+            for (String paletteName : names) {
+                ConfigurationSection palette = section.getConfigurationSection(paletteName);
+                List<String> materialNames = palette == null ? Collections.<String>emptyList() : palette.getStringList("materials");
+                if (materialNames.isEmpty())
+                    throw new IllegalArgumentException("palette " + paletteName + " has no materials");
+                List<Material> materials = new ArrayList<Material>();
+                for (String materialName : materialNames)
+                    materials.add(material(materialName, "palette " + paletteName));
+
+                FillerPalette filler = new FillerPalette(color(palette.getString("name", " ")), materials);
+                palettes[id] = items.size();
+                for (int i = 0; i < filler.size(); i++)
+                    items.add(filler.get(i));
+                paletteIds.put(paletteName, id++);
+            }
+            palettes[id] = items.size();
+        }
+
+        private void compilePath(ConfigurationSection path, int duration, int hold) {
+            try {
+                pathType = PathType.valueOf(path.getString("type", "").toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("path type must be scroll, shuffle or remove");
+            }
+            pathSlots = slots(path.get("slots"), "path slots");
+            if (pathSlots == null)
+                throw new IllegalArgumentException("path slots are missing");
+            int every = path.getInt("every", 1);
+            if (every < 1)
+                throw new IllegalArgumentException("path every must be at least 1");
+            int length = pathSlots.length;
+            int winner = pathType == PathType.SCROLL ? length / 2 : 0;
+            if (path.contains("winner")) {
+                winner = indexOf(pathSlots, path.getInt("winner", -1));
+                if (winner < 0)
+                    throw new IllegalArgumentException("path winner must be one of the path slots");
+            }
+            if (pathType != PathType.REMOVE && duration == 0)
+                throw new IllegalArgumentException("duration must be positive for a " + pathType.name().toLowerCase() + " path");
+
+            int steps;
+            int lastStep;
+            switch (pathType) {
+                case SCROLL:
+                    steps = (duration + every - 1) / every;
+                    lastStep = (steps - 1) * every;
+                    rewardCount = steps + length;
+                    winnerIndex = steps + winner;
+                    break;
+                case SHUFFLE:
+                    steps = (duration + every - 1) / every;
+                    lastStep = (steps - 1) * every;
+                    rewardCount = steps * length;
+                    winnerIndex = (steps - 1) * length + winner;
+                    break;
+                default:
+                    if (length < 2)
+                        throw new IllegalArgumentException("a remove path needs at least two slots");
+                    steps = length - 1;
+                    lastStep = (length - 2) * every;
+                    rewardCount = length;
+                    winnerIndex = length - 1;
+                    break;
+            }
+            end = Math.max(duration, lastStep);
+            close = end + hold;
+            if (close > MAX_TICKS)
+                throw new IllegalArgumentException("the animation cannot last more than " + MAX_TICKS + " ticks");
+
+            switch (pathType) {
+                case SCROLL:
+                    for (int i = 0; i < length; i++)
+                        add(OPEN, pathSlots[i], REWARD, i);
+                    for (int step = 1; step <= steps; step++)
+                        for (int i = 0; i < length; i++)
+                            add((step - 1) * every, pathSlots[i], REWARD, step + i);
+                    break;
+                case SHUFFLE:
+                    for (int step = 0; step < steps; step++)
+                        for (int i = 0; i < length; i++)
+                            add(step * every, pathSlots[i], REWARD, step * length + i);
+                    break;
+                default:
+                    int filler = palette(path.getString("filler"), "path filler");
+                    for (int i = 0; i < length; i++)
+                        add(OPEN, PATH | i, REWARD, i);
+                    for (int step = 0; step < steps; step++)
+                        add(step * every, PATH | step, paletteKind(filler), paletteValue(filler));
+                    break;
+            }
+        }
+
+        private void compileKeyframe(Map<?, ?> keyframe) {
+            int at = tick(keyframe.get("at"), "keyframe at", close - 1);
+            int every = keyframe.containsKey("every") ? number(keyframe.get("every"), "keyframe every") : 0;
+            if (every < 0 || (every > 0 && at == OPEN))
+                throw new IllegalArgumentException("keyframe every must be positive and cannot repeat the opening");
+            int until = keyframe.containsKey("until") ? tick(keyframe.get("until"), "keyframe until", close) : (every > 0 ? close : at + 1);
+            if (every == 0)
+                every = Math.max(1, until - at);
+
+            int kind;
+            int value;
+            int[] slots;
+            if (keyframe.containsKey("winner")) {
+                int slot = number(keyframe.get("winner"), "keyframe winner");
+                if (slot < 0 || slot >= size)
+                    throw new IllegalArgumentException("keyframe winner slot " + slot + " is outside the menu");
+                kind = REWARD;
+                value = winnerIndex;
+                slots = new int[]{slot};
+            } else {
+                int palette = palette(keyframe.get("palette") == null ? null : keyframe.get("palette").toString(), "keyframe palette");
+                kind = paletteKind(palette);
+                value = paletteValue(palette);
+                slots = slots(keyframe.get("slots"), "keyframe slots");
+                if (slots == null)
+                    slots = slots("0-" + (size - 1), "keyframe slots");
+                int[] except = slots(keyframe.get("except"), "keyframe except");
+                if (except != null)
+                    slots = Arrays.stream(slots).filter(slot -> indexOf(except, slot) < 0).toArray();
+            }
+
+            for (int tick = at; tick < until; tick += every)
+                for (int slot : slots)
+                    add(tick, slot, kind, value);
+        }
+
+        private void add(int tick, int target, int kind, int value) {
+            if (count == MAX_UPDATES)
+                throw new IllegalArgumentException("the animation has more than " + MAX_UPDATES + " slot updates");
+            if (count == ticks.length) {
+                ticks = Arrays.copyOf(ticks, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+                sources = Arrays.copyOf(sources, count * 2);
+            }
+            ticks[count] = tick;
+            targets[count] = target;
+            sources[count++] = (kind << KIND_SHIFT) | value;
+        }
+
+        private int palette(String paletteName, String field) {
+            Integer id = paletteName == null ? null : paletteIds.get(paletteName);
+            if (id == null)
+                throw new IllegalArgumentException("unknown palette " + paletteName + " for " + field);
+            return id;
+        }
+
+        // a palette of a single item always shows that item
+        private int paletteKind(int palette) {
+            return palettes[palette + 1] - palettes[palette] == 1 ? ITEM : RANDOM;
+        }
+
+        private int paletteValue(int palette) {
+            return paletteKind(palette) == ITEM ? palettes[palette] : palette;
+        }
+
+        /**
+         * Reads a tick: "open", "end" or a number of ticks
+         */
+        private int tick(Object value, String field, int max) {
+            int tick;
+            if ("open".equals(value))
+                tick = OPEN;
+            else if ("end".equals(value))
+                tick = end;
+            else
+                tick = number(value, field);
+            if (tick < OPEN || tick > max)
+                throw new IllegalArgumentException(field + " " + value + " is outside the animation");
+            return tick;
+        }
+
+        /**
+         * Reads slots from a number, a list, or ranges such as "0-8,36-44"
+         *
+         * @return the slots in order without duplicates, or null if there are none
+         */
+        private int[] slots(Object value, String field) {
+            if (value == null)
+                return null;
+            List<Object> parts = new ArrayList<Object>();
+            if (value instanceof List)
+                parts.addAll((List<?>) value);
+            else
+                parts.addAll(Arrays.asList(value.toString().split(",")));
+
+            Set<Integer> slots = new LinkedHashSet<Integer>();
+            for (Object part : parts) {
+                String text = part.toString().trim();
+                int dash = text.indexOf('-', 1);
+                int from = number(dash < 0 ? text : text.substring(0, dash), field);
+                int to = dash < 0 ? from : number(text.substring(dash + 1), field);
+                if (from < 0 || to >= size || from > to)
+                    throw new IllegalArgumentException(field + " " + text + " is outside the menu");
+                for (int slot = from; slot <= to; slot++)
+                    slots.add(slot);
+            }
+            return slots.isEmpty() ? null : slots.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int number(Object value, String field) {
+            if (value instanceof Number)
+                return ((Number) value).intValue();
+            try {
+                return Integer.parseInt(String.valueOf(value).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(field + " " + value + " is not a number");
+            }
+        }
+
+        private static int indexOf(int[] array, int value) {
+            for (int i = 0; i < array.length; i++)
+                if (array[i] == value)
+                    return i;
+            return -1;
+        }
+    }
+}
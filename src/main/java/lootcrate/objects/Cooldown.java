@@ -11,12 +11,14 @@ public class Cooldown implements ConfigurationSerializable {
     private int crateId;
     private long lastOpenTimeMils;
     private int cooldownTime;
+    private long expiresAt;
 
     public Cooldown(UUID uuid, int crateId, long lastOpenTimeMils, int cooldownTime) {
         this.uuid = uuid;
         this.crateId = crateId;
         this.lastOpenTimeMils = lastOpenTimeMils;
         this.cooldownTime = cooldownTime;
+        this.expiresAt = lastOpenTimeMils + (cooldownTime * 1000L); // Convert cooldownTime to milliseconds
     }
 
     public Cooldown(Map<String, Object> data) {
@@ -24,6 +26,7 @@ public class Cooldown implements ConfigurationSerializable {
         this.crateId = (int) data.get("crateId");
         this.lastOpenTimeMils = (long) data.get("lastOpenTimeMils");
         this.cooldownTime = (int) data.get("cooldownTime");
+        this.expiresAt = lastOpenTimeMils + (cooldownTime * 1000L);
     }
 
     public UUID getUuid() {
@@ -42,19 +45,23 @@ public class Cooldown implements ConfigurationSerializable {
         return cooldownTime;
     }
 
+    /**
+     * Gets the time the cooldown ends at
+     *
+     * @return expiry time in milliseconds
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
     public boolean isOver() {
-        long currentTimeMillis = System.currentTimeMillis();
-        long expirationTimeMillis = lastOpenTimeMils + (cooldownTime * 1000L); // Convert cooldownTime to milliseconds
-        return expirationTimeMillis <= currentTimeMillis;
+        return expiresAt <= System.currentTimeMillis();
     }
 
     public double getTimeLeft() {
-        if (isOver()) return 0D;
-
-        long currentTimeMillis = System.currentTimeMillis();
-        long expirationTimeMillis = lastOpenTimeMils + (cooldownTime * 1000L); // Convert cooldownTime to milliseconds
+        long timeLeftMillis = expiresAt - System.currentTimeMillis();
+        if (timeLeftMillis <= 0) return 0D;
 
-        long timeLeftMillis = expirationTimeMillis - currentTimeMillis;
         double timeLeftSeconds = (double) timeLeftMillis / 1000.0; // Convert milliseconds to seconds
 
         return Math.round(timeLeftSeconds * 10.0) / 10.0; // Round to 1 decimal place
@@ -0,0 +1,218 @@
+package lootcrate.objects;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Crate ids by block, bucketed by chunk. A chunk is keyed by a long packing a
+ * world id with the chunk coordinates, held in an open addressing table, and a
+ * block within its chunk by an int packing its y and chunk-relative x/z. Worlds
+ * are known by name, so blocks can be indexed before their world is loaded.
+ * <p>
+ * Not thread safe: the LocationManager only changes it while holding its lock,
+ * and looks blocks up from the main thread.
+ */
+public class CrateBlockIndex {
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int WORLD_BITS = 19;
+    private static final int CHUNK_BITS = 22;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private static final int NONE = -1;
+
+    private final Map<String, Integer> worldIds = new HashMap<String, Integer>();
+    private long[] keys;
+    private Bucket[] buckets;
+    private int size;
+
+    public CrateBlockIndex() {
+        clear();
+    }
+
+    /**
+     * Indexes a block, replacing the crate already indexed there
+     *
+     * @param world   name of the world
+     * @param x       block x
+     * @param y       block y
+     * @param z       block z
+     * @param crateId id of the crate
+     */
+    public void put(String world, int x, int y, int z, int crateId) {
+        Integer worldId = worldIds.get(world);
+        if (worldId == null) {
+            worldId = worldIds.size() + 1;
+            if (worldId >= 1 << WORLD_BITS)
+                throw new IllegalStateException("Too many worlds");
+            worldIds.put(world, worldId);
+        }
+        if ((size + 1) * 2 > keys.length)
+            resize(keys.length * 2);
+
+        long key = chunkKey(worldId, x >> 4, z >> 4);
+        int slot = slot(key);
+        if (keys[slot] == FREE) {
+            keys[slot] = key;
+            buckets[slot] = new Bucket();
+            size++;
+        }
+        buckets[slot].put(blockKey(x, y, z), crateId);
+    }
+
+    /**
+     * Removes a block from the index
+     *
+     * @return true if the block was indexed
+     */
+    public boolean remove(String world, int x, int y, int z) {
+        Integer worldId = worldIds.get(world);
+        if (worldId == null)
+            return false;
+        int slot = slot(chunkKey(worldId, x >> 4, z >> 4));
+        if (keys[slot] == FREE || !buckets[slot].remove(blockKey(x, y, z)))
+            return false;
+        if (buckets[slot].count == 0)
+            delete(slot);
+        return true;
+    }
+
+    /**
+     * Finds the crate indexed at a block
+     *
+     * @return id of the crate, or -1 if there is none
+     */
+    public int find(String world, int x, int y, int z) {
+        Integer worldId = worldIds.get(world);
+        if (worldId == null)
+            return NONE;
+        int slot = slot(chunkKey(worldId, x >> 4, z >> 4));
+        if (keys[slot] == FREE)
+            return NONE;
+        return buckets[slot].find(blockKey(x, y, z));
+    }
+
+    /**
+     * Checks if any crate is indexed in a chunk
+     */
+    public boolean hasChunk(String world, int chunkX, int chunkZ) {
+        Integer worldId = worldIds.get(world);
+        return worldId != null && keys[slot(chunkKey(worldId, chunkX, chunkZ))] != FREE;
+    }
+
+    public void clear() {
+        keys = new long[64];
+        Arrays.fill(keys, FREE);
+        buckets = new Bucket[64];
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of a chunk key, or the free slot it would take
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Frees a slot, shifting back the entries of its probe run so that no
+     * lookup stops early at the hole
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                buckets[hole] = buckets[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        buckets[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Bucket[] oldBuckets = buckets;
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        buckets = new Bucket[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE)
+                continue;
+            int slot = slot(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            buckets[slot] = oldBuckets[i];
+        }
+    }
+
+    private static long chunkKey(int worldId, int chunkX, int chunkZ) {
+        return ((long) worldId << (CHUNK_BITS * 2)) | ((chunkX & CHUNK_MASK) << CHUNK_BITS) | (chunkZ & CHUNK_MASK);
+    }
+
+    private static int blockKey(int x, int y, int z) {
+        return (y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Blocks of one chunk, usually one or two, scanned linearly
+     */
+    private static class Bucket {
+        private int[] blocks = new int[2];
+        private int[] crates = new int[2];
+        private int count;
+
+        private int find(int block) {
+            for (int i = 0; i < count; i++)
+                if (blocks[i] == block)
+                    return crates[i];
+            return NONE;
+        }
+
+        private void put(int block, int crateId) {
+            for (int i = 0; i < count; i++) {
+                if (blocks[i] == block) {
+                    crates[i] = crateId;
+                    return;
+                }
+            }
+            if (count == blocks.length) {
+                blocks = Arrays.copyOf(blocks, count * 2);
+                crates = Arrays.copyOf(crates, count * 2);
+            }
+            blocks[count] = block;
+            crates[count++] = crateId;
+        }
+
+        private boolean remove(int block) {
+            for (int i = 0; i < count; i++) {
+                if (blocks[i] == block) {
+                    count--;
+                    blocks[i] = blocks[count];
+                    crates[i] = crates[count];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package lootcrate.objects;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * A crate placed in the world, as stored. The world is kept by name so the
+ * location survives while its world is not loaded.
+ */
+public class CrateLocation {
+    private final String id;
+    private final int crateId;
+    private final String world;
+    private final double x;
+    private final double y;
+    private final double z;
+
+    public CrateLocation(String id, int crateId, String world, double x, double y, double z) {
+        this.id = id;
+        this.crateId = crateId;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public CrateLocation(String id, int crateId, Location location) {
+        this(id, crateId, location.getWorld() == null ? null : location.getWorld().getName(), location.getX(),
+                location.getY(), location.getZ());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getCrateId() {
+        return crateId;
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Resolves the stored location in its world
+     *
+     * @return the Location, or null if the world is not loaded
+     */
+    public Location toLocation() {
+        World bukkitWorld = world == null ? null : Bukkit.getWorld(world);
+        if (bukkitWorld == null)
+            return null;
+        return new Location(bukkitWorld, x, y, z);
+    }
+}
@@ -0,0 +1,107 @@
+package lootcrate.objects;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of every loaded crate, indexed by crate id, by normalized
+ * name and by the id of each reward item. Changes produce a new snapshot, so a
+ * reader holding one never sees it change underneath it.
+ */
+public final class CrateRegistry {
+    public static final CrateRegistry EMPTY = new CrateRegistry(Collections.<Crate>emptyList());
+
+    private final List<Crate> crates;
+    private final Map<Integer, Crate> byId;
+    private final Map<String, Crate> byName;
+    private final Map<Integer, Crate> byItemId;
+
+    public CrateRegistry(Collection<Crate> crates) {
+        List<Crate> list = new ArrayList<Crate>(crates.size());
+        Map<Integer, Crate> byId = new HashMap<Integer, Crate>();
+        Map<String, Crate> byName = new HashMap<String, Crate>();
+        Map<Integer, Crate> byItemId = new HashMap<Integer, Crate>();
+
+        for (Crate crate : crates) {
+            // last one wins, matching the remove then add order of the old cache
+            Crate previous = byId.put(crate.getId(), crate);
+            if (previous != null)
+                list.remove(previous);
+            list.add(crate);
+        }
+
+        for (Crate crate : list) {
+            if (crate.getName() != null)
+                byName.putIfAbsent(normalize(crate.getName()), crate);
+            for (CrateItem item : crate.getItems())
+                byItemId.putIfAbsent(item.getId(), crate);
+        }
+
+        this.crates = Collections.unmodifiableList(list);
+        this.byId = byId;
+        this.byName = byName;
+        this.byItemId = byItemId;
+    }
+
+    /**
+     * Normalizes a crate name for lookups, ignoring colors and case
+     *
+     * @param name Name to normalize
+     * @return The name without color codes, in lower case
+     */
+    public static String normalize(String name) {
+        String stripped = ChatColor.stripColor(ChatColor.translateAlternateColorCodes('&', name));
+        return stripped.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a new registry with the given crate added, replacing any crate with the same id
+     *
+     * @param crate Crate to add
+     * @return The new registry
+     */
+    public CrateRegistry with(Crate crate) {
+        List<Crate> list = new ArrayList<Crate>(crates);
+        list.add(crate);
+        return new CrateRegistry(list);
+    }
+
+    /**
+     * Returns a new registry without the crate of the given id
+     *
+     * @param id Id of the crate to remove
+     * @return The new registry
+     */
+    public CrateRegistry without(int id) {
+        List<Crate> list = new ArrayList<Crate>(crates);
+        list.removeIf(crate -> crate.getId() == id);
+        return new CrateRegistry(list);
+    }
+
+    public List<Crate> getCrates() {
+        return crates;
+    }
+
+    public Crate getById(int id) {
+        return byId.get(id);
+    }
+
+    public Crate getByName(String name) {
+        return name == null ? null : byName.get(normalize(name));
+    }
+
+    public Crate getByItemId(int id) {
+        return byItemId.get(id);
+    }
+
+    public int size() {
+        return crates.size();
+    }
+}
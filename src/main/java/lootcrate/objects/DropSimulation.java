@@ -0,0 +1,104 @@
+package lootcrate.objects;
+
+import lootcrate.managers.CrateManager;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulation of a crate's drops, run as a fork-join task. Every
+ * forked worker draws with its own SplittableRandom, so no generator is shared
+ * between threads.
+ */
+public class DropSimulation extends RecursiveTask<DropSimulation.Tally> {
+    private static final long THRESHOLD = 1 << 16;
+
+    private final CrateManager crateManager;
+    private final LootTable table;
+    private final SplittableRandom random;
+    private final long draws;
+
+    public DropSimulation(CrateManager crateManager, LootTable table, long draws) {
+        this(crateManager, table, new SplittableRandom(), draws);
+    }
+
+    private DropSimulation(CrateManager crateManager, LootTable table, SplittableRandom random, long draws) {
+        this.crateManager = crateManager;
+        this.table = table;
+        this.random = random;
+        this.draws = draws;
+    }
+
+    @Override
+    protected Tally compute() {
+        if (draws <= THRESHOLD)
+            return simulate();
+
+        long half = draws / 2;
+        DropSimulation left = new DropSimulation(crateManager, table, random.split(), half);
+        DropSimulation right = new DropSimulation(crateManager, table, random, draws - half);
+        left.fork();
+        Tally tally = right.compute();
+        tally.merge(left.join());
+        return tally;
+    }
+
+    private Tally simulate() {
+        Tally tally = new Tally(table.size());
+        for (long i = 0; i < draws; i++) {
+            int index = table.nextIndex(random);
+            CrateItem item = table.getItem(index);
+            int amount = crateManager.getRandomAmount(item, random);
+
+            tally.hits[index]++;
+            tally.draws++;
+            if (!item.isDisplay())
+                tally.itemsGiven += (long) amount * item.getItem().getAmount();
+            if (item.getCommands() != null && !item.getCommands().isEmpty())
+                tally.commandDraws++;
+        }
+        return tally;
+    }
+
+    /**
+     * Counts gathered by a simulation, indexed like the simulated LootTable
+     */
+    public static class Tally {
+        private final long[] hits;
+        private long draws;
+        private long itemsGiven;
+        private long commandDraws;
+
+        private Tally(int size) {
+            this.hits = new long[size];
+        }
+
+        private void merge(Tally other) {
+            for (int i = 0; i < hits.length; i++)
+                hits[i] += other.hits[i];
+            draws += other.draws;
+            itemsGiven += other.itemsGiven;
+            commandDraws += other.commandDraws;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getHits(int index) {
+            return hits[index];
+        }
+
+        public double getObservedRate(int index) {
+            return draws == 0 ? 0 : (double) hits[index] / draws;
+        }
+
+        public double getItemsPerOpen() {
+            return draws == 0 ? 0 : (double) itemsGiven / draws;
+        }
+
+        public double getCommandRate() {
+            return draws == 0 ? 0 : (double) commandDraws / draws;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package lootcrate.objects;
+
+import lootcrate.gui.frames.types.AnimatedFrame;
+import lootcrate.gui.frames.types.Frame;
+
+import java.util.UUID;
+
+/**
+ * The frame a player has open and the time it was opened at.
+ */
+public class FrameSession {
+
+    private final UUID uuid;
+    private final String playerName;
+    private final Frame frame;
+    private final long openedAt;
+
+    public FrameSession(UUID uuid, String playerName, Frame frame) {
+        this.uuid = uuid;
+        this.playerName = playerName;
+        this.frame = frame;
+        this.openedAt = System.currentTimeMillis();
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public Frame getFrame() {
+        return frame;
+    }
+
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    public boolean isAnimating() {
+        return frame instanceof AnimatedFrame && ((AnimatedFrame) frame).isRunning();
+    }
+
+}
@@ -0,0 +1,155 @@
+package lootcrate.objects;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The virtual keys of one player, as a count per crate id. Counts are kept in an
+ * open-addressing table of primitive ints, so holding a thousand keys for a
+ * crate costs one slot instead of a thousand boxed entries. Every operation is
+ * atomic for the wallet.
+ */
+public class KeyWallet {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] crateIds;
+    private int[] counts;
+    private int slots;
+
+    public KeyWallet() {
+        this.crateIds = new int[4];
+        this.counts = new int[4];
+        Arrays.fill(crateIds, FREE);
+    }
+
+    /**
+     * Gets the amount of keys held for a crate
+     *
+     * @param crateId id of the crate
+     * @return the amount of keys
+     */
+    public synchronized int get(int crateId) {
+        int index = indexOf(crateId);
+        return crateIds[index] == FREE ? 0 : counts[index];
+    }
+
+    /**
+     * Adds keys for a crate
+     *
+     * @param crateId id of the crate
+     * @param amount  amount of keys to add
+     */
+    public synchronized void add(int crateId, int amount) {
+        if (amount <= 0)
+            return;
+        int index = indexOf(crateId);
+        if (crateIds[index] == FREE) {
+            crateIds[index] = crateId;
+            counts[index] = 0;
+            if (++slots * 2 > crateIds.length)
+                index = grow(crateId);
+        }
+        counts[index] = (int) Math.min(Integer.MAX_VALUE, (long) counts[index] + amount);
+    }
+
+    /**
+     * Removes up to the given amount of keys for a crate
+     *
+     * @param crateId id of the crate
+     * @param amount  maximum amount of keys to remove
+     * @return the amount of keys actually removed
+     */
+    public synchronized int consume(int crateId, int amount) {
+        if (amount <= 0)
+            return 0;
+        int index = indexOf(crateId);
+        if (crateIds[index] == FREE)
+            return 0;
+        int consumed = Math.min(amount, counts[index]);
+        counts[index] -= consumed;
+        return consumed;
+    }
+
+    /**
+     * Moves up to the given amount of keys for a crate into another wallet
+     *
+     * @param target  wallet receiving the keys
+     * @param crateId id of the crate
+     * @param amount  maximum amount of keys to move
+     * @return the amount of keys actually moved
+     */
+    public int transfer(KeyWallet target, int crateId, int amount) {
+        if (target == this)
+            return 0;
+        // lock both wallets in a fixed order so opposite transfers cannot deadlock
+        KeyWallet first = System.identityHashCode(this) <= System.identityHashCode(target) ? this : target;
+        KeyWallet second = first == this ? target : this;
+        synchronized (first) {
+            synchronized (second) {
+                int moved = consume(crateId, amount);
+                target.add(crateId, moved);
+                return moved;
+            }
+        }
+    }
+
+    /**
+     * Gets the total amount of keys held, for every crate
+     *
+     * @return the amount of keys
+     */
+    public synchronized int total() {
+        long total = 0;
+        for (int i = 0; i < crateIds.length; i++)
+            if (crateIds[i] != FREE)
+                total += counts[i];
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    public synchronized boolean isEmpty() {
+        return total() == 0;
+    }
+
+    /**
+     * Copies the non-zero counts of the wallet
+     *
+     * @return amount of keys by crate id
+     */
+    public synchronized Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> map = new LinkedHashMap<Integer, Integer>();
+        for (int i = 0; i < crateIds.length; i++)
+            if (crateIds[i] != FREE && counts[i] > 0)
+                map.put(crateIds[i], counts[i]);
+        return map;
+    }
+
+    private int indexOf(int crateId) {
+        int mask = crateIds.length - 1;
+        int index = mix(crateId) & mask;
+        while (crateIds[index] != FREE && crateIds[index] != crateId)
+            index = (index + 1) & mask;
+        return index;
+    }
+
+    private int grow(int crateId) {
+        int[] oldIds = crateIds;
+        int[] oldCounts = counts;
+        crateIds = new int[oldIds.length * 2];
+        counts = new int[oldIds.length * 2];
+        Arrays.fill(crateIds, FREE);
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] == FREE)
+                continue;
+            int index = indexOf(oldIds[i]);
+            crateIds[index] = oldIds[i];
+            counts[index] = oldCounts[i];
+        }
+        return indexOf(crateId);
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
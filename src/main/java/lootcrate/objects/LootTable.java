@@ -0,0 +1,147 @@
+package lootcrate.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable weighted table of a crate's items, sampled with Vose's alias method.
+ * Building the table is O(n); every draw afterwards is O(1) and allocates nothing.
+ */
+public class LootTable {
+    private final CrateItem[] items;
+    private final double[] probability;
+    private final int[] alias;
+    private final double total;
+
+    /**
+     * Compiles the given items into an alias table. Items with a chance of zero
+     * or less can never be drawn and are left out.
+     *
+     * @param crateItems Items to compile, weighted by {@link CrateItem#getChance()}
+     */
+    public LootTable(List<CrateItem> crateItems) {
+        List<CrateItem> weighted = new ArrayList<CrateItem>();
+        double total = 0;
+        for (CrateItem item : crateItems) {
+            if (item.getChance() <= 0)
+                continue;
+            weighted.add(item);
+            total += item.getChance();
+        }
+
+        int n = weighted.size();
+        this.total = total;
+        this.items = weighted.toArray(new CrateItem[0]);
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        if (n == 0)
+            return;
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = items[i].getChance() * n / total;
+            if (scaled[i] < 1.0)
+                small[smallSize++] = i;
+            else
+                large[largeSize++] = i;
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0)
+                small[smallSize++] = more;
+            else
+                large[largeSize++] = more;
+        }
+
+        // whatever is left is 1.0 up to floating point error
+        while (largeSize > 0)
+            probability[large[--largeSize]] = 1.0;
+        while (smallSize > 0)
+            probability[small[--smallSize]] = 1.0;
+    }
+
+    /**
+     * Draws a random item from the table
+     *
+     * @return A random CrateItem, or null if no item has a positive chance
+     */
+    public CrateItem next() {
+        if (items.length == 0)
+            return null;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return pick(random.nextInt(items.length), random.nextDouble());
+    }
+
+    /**
+     * Draws a random item from the table using the given generator, for callers
+     * running their own random streams off the main thread
+     *
+     * @param random Generator owned by the calling thread
+     * @return Index of the drawn item, or -1 if no item has a positive chance
+     */
+    public int nextIndex(SplittableRandom random) {
+        if (items.length == 0)
+            return -1;
+        int column = random.nextInt(items.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Resolves a draw from a uniformly chosen column and a coin flip in [0, 1)
+     *
+     * @param column Column of the alias table, between 0 and size() - 1
+     * @param coin   Uniform value between 0 inclusive and 1 exclusive
+     * @return The CrateItem selected by the draw
+     */
+    public CrateItem pick(int column, double coin) {
+        return coin < probability[column] ? items[column] : items[alias[column]];
+    }
+
+    /**
+     * Gets a drawable item by its index in the table
+     *
+     * @param index Index between 0 and size() - 1
+     * @return The CrateItem at that index
+     */
+    public CrateItem getItem(int index) {
+        return items[index];
+    }
+
+    /**
+     * Gets the configured probability of drawing the item at the given index
+     *
+     * @param index Index between 0 and size() - 1
+     * @return The item's chance divided by the sum of all chances
+     */
+    public double getProbability(int index) {
+        return items[index].getChance() / total;
+    }
+
+    /**
+     * Gets the number of drawable items in the table
+     *
+     * @return number of items with a positive chance
+     */
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+}
@@ -0,0 +1,81 @@
+package lootcrate.objects;
+
+import lootcrate.enums.CrateOptionType;
+import lootcrate.enums.OpenEffect;
+import lootcrate.enums.Sounds;
+import lootcrate.utils.SoundUtils;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * What happens around a crate when it is opened: its effect, sound and
+ * message, resolved once from the crate options and config.yml so that an
+ * open does not parse anything.
+ */
+public final class OpenProfile {
+    private final OpenEffect effect;
+    private final Sounds sound;
+    private final int volume;
+    private final String message;
+
+    private OpenProfile(OpenEffect effect, Sounds sound, int volume, String message) {
+        this.effect = effect;
+        this.sound = sound;
+        this.volume = volume;
+        this.message = message;
+    }
+
+    /**
+     * Compiles the open profile of a crate
+     *
+     * @param crate  The crate
+     * @param effect Effect name from the "effect" section of config.yml, or null
+     * @param prefix Message prefix
+     * @return the compiled profile
+     */
+    public static OpenProfile compile(Crate crate, String effect, String prefix) {
+        OpenEffect openEffect = OpenEffect.fromName(effect);
+
+        Object soundName = crate.getOptions().get(CrateOptionType.OPEN_SOUND);
+        Sounds sound = soundName == null ? null : SoundUtils.valueOf(soundName.toString());
+        // a crate whose sound is none or unknown does not send its message either
+        if (soundName != null && (soundName.toString().equalsIgnoreCase("none") || sound == null))
+            return new OpenProfile(openEffect, null, 0, null);
+
+        Object soundVolume = crate.getOptions().get(CrateOptionType.SOUND_VOLUME);
+        int volume = soundVolume == null ? 1 : (int) soundVolume;
+
+        Object openMessage = crate.getOptions().get(CrateOptionType.OPEN_MESSAGE);
+        String message = null;
+        if (openMessage != null && !openMessage.toString().equalsIgnoreCase("none"))
+            message = prefix + ChatColor.translateAlternateColorCodes('&',
+                    openMessage.toString().replace("{crate_name}", crate.getName()));
+        return new OpenProfile(openEffect, sound, volume, message);
+    }
+
+    public boolean hasEffect() {
+        return effect != null;
+    }
+
+    /**
+     * Plays the effect above a location of the crate
+     *
+     * @param l Location of the crate
+     */
+    public void playEffect(Location l) {
+        effect.play(l.clone().add(0.5, 1, 0.5));
+    }
+
+    /**
+     * Plays the sound and sends the message to the player opening the crate
+     *
+     * @param p Player opening the crate
+     */
+    public void playFor(Player p) {
+        if (sound != null)
+            SoundUtils.playSound(p, sound, volume, 1);
+        if (message != null)
+            p.sendMessage(message);
+    }
+}
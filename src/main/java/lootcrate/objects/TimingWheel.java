@@ -0,0 +1,131 @@
+package lootcrate.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Entries are bucketed by the tick they expire at, in
+ * three levels of 64 slots each (1, 64 and 4096 ticks per slot); entries further
+ * away wait in an overflow list. Scheduling is O(1) and advancing one tick only
+ * touches the entries due in that tick, plus an occasional cascade of one slot
+ * into the level below.
+ *
+ * @param <T> type of the scheduled entries
+ */
+public class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> wheels = new ArrayList<List<Entry<T>>>();
+    private List<Entry<T>> overflow = new ArrayList<Entry<T>>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis length of one tick in milliseconds
+     * @param nowMillis  current time in milliseconds
+     */
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++)
+            wheels.add(new ArrayList<Entry<T>>());
+    }
+
+    /**
+     * Schedules an entry. Entries already due expire on the next advance
+     *
+     * @param value     entry to schedule
+     * @param expiresAt time the entry expires at, in milliseconds
+     */
+    public void schedule(T value, long expiresAt) {
+        place(new Entry<T>(value, Math.max(currentTick + 1, (expiresAt + tickMillis - 1) / tickMillis)));
+    }
+
+    /**
+     * Advances the wheel to the given time, handing every entry that expired on
+     * the way to the consumer
+     *
+     * @param nowMillis current time in milliseconds
+     * @param expired   receives expired entries
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long target = nowMillis / tickMillis;
+        if (target - currentTick > (1L << (BITS * LEVELS))) {
+            // a very long pause, reschedule everything instead of walking every tick
+            List<Entry<T>> all = new ArrayList<Entry<T>>(overflow);
+            overflow = new ArrayList<Entry<T>>();
+            for (List<Entry<T>> slot : wheels) {
+                all.addAll(slot);
+                slot.clear();
+            }
+            currentTick = target;
+            for (Entry<T> entry : all) {
+                if (entry.tick <= currentTick)
+                    expired.accept(entry.value);
+                else
+                    place(entry);
+            }
+            return;
+        }
+
+        while (currentTick < target) {
+            currentTick++;
+            if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                List<Entry<T>> waiting = overflow;
+                overflow = new ArrayList<Entry<T>>();
+                for (Entry<T> entry : waiting)
+                    place(entry);
+            }
+            for (int level = LEVELS - 1; level > 0; level--)
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0)
+                    cascade(level);
+
+            List<Entry<T>> due = slot(0, currentTick);
+            if (due.isEmpty())
+                continue;
+            List<Entry<T>> entries = new ArrayList<Entry<T>>(due);
+            due.clear();
+            for (Entry<T> entry : entries)
+                expired.accept(entry.value);
+        }
+    }
+
+    private void cascade(int level) {
+        List<Entry<T>> slot = slot(level, currentTick >> (BITS * level));
+        if (slot.isEmpty())
+            return;
+        List<Entry<T>> entries = new ArrayList<Entry<T>>(slot);
+        slot.clear();
+        for (Entry<T> entry : entries)
+            place(entry);
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (BITS * (level + 1)))) {
+                slot(level, entry.tick >> (BITS * level)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, long index) {
+        return wheels.get(level * SLOTS + (int) (index & MASK));
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long tick;
+
+        private Entry(T value, long tick) {
+            this.value = value;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package lootcrate.storage;
+
+import lootcrate.LootCrate;
+import lootcrate.managers.FileManager;
+import lootcrate.objects.Cooldown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped hash table of cooldowns. The file is a small header followed by
+ * fixed-size records keyed by player and crate id, placed by linear probing, so
+ * storing a cooldown overwrites a single record in place. Records that are
+ * expired or fail their checksum are reused by later writes. Once the table
+ * fills up, the file is mapped again at a larger size and the running
+ * cooldowns are rehashed in place; the header is invalid while they move, so a
+ * crash in between starts a new store instead of reading a torn table.
+ * <p>
+ * Record layout, {@value #RECORD_SIZE} bytes: uuid msb and lsb, crate id,
+ * cooldown time in seconds, expiry time in milliseconds, a CRC32 of the
+ * previous fields and four reserved bytes. An all zero record is a free slot.
+ */
+public class CooldownStore {
+    private static final int MAGIC = 0x4C43434F;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 40;
+    private static final int CHECKED_SIZE = 32;
+    private static final int MIN_CAPACITY = 1024;
+    private static final double MAX_LOAD = 0.7;
+
+    private final LootCrate plugin;
+    private final File file;
+
+    private MappedByteBuffer table;
+    private int capacity;
+    private int used;
+    private boolean dirty;
+
+    public CooldownStore(LootCrate plugin, File file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+
+    /**
+     * Maps the store, creating it when it does not exist or cannot be read
+     *
+     * @return true if the store was created empty
+     */
+    public synchronized boolean open() {
+        if (file.exists()) {
+            try {
+                if (map()) return false;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            plugin.getLogger().warning(file.getName() + " is not a valid cooldown store, creating a new one.");
+        }
+        create(MIN_CAPACITY);
+        return true;
+    }
+
+    /**
+     * Maps the file if its header is valid. The header is read before mapping,
+     * so an invalid file is never mapped and can be replaced
+     */
+    private boolean map() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining())
+                if (channel.read(header, header.position()) < 0)
+                    break;
+            if (header.hasRemaining())
+                return false;
+            int size = header.getInt(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || Integer.bitCount(size) != 1
+                    || channel.size() != HEADER_SIZE + (long) size * RECORD_SIZE)
+                return false;
+
+            table = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            capacity = size;
+            used = 0;
+            for (int slot = 0; slot < capacity; slot++)
+                if (!isFree(position(slot)))
+                    used++;
+            return true;
+        }
+    }
+
+    /**
+     * Reads every cooldown that is still running
+     *
+     * @return list of active cooldowns
+     */
+    public synchronized List<Cooldown> load() {
+        List<Cooldown> cooldowns = new ArrayList<Cooldown>();
+        long now = System.currentTimeMillis();
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = position(slot);
+            if (isLive(position, now))
+                cooldowns.add(read(position));
+        }
+        return cooldowns;
+    }
+
+    /**
+     * Stores a cooldown, replacing the one of the same player and crate
+     *
+     * @param cooldown cooldown to store
+     * @throws StorageException if the store is closed or cannot grow
+     */
+    public synchronized void write(Cooldown cooldown) {
+        if (table == null)
+            throw new StorageException("The cooldown store is closed");
+        if (used + 1 > capacity * MAX_LOAD) {
+            List<Cooldown> live = load();
+            rehash(live, Math.max(capacity, Integer.highestOneBit(Math.max(1, live.size() * 4 - 1)) << 1));
+        }
+        if (insert(table, capacity, cooldown, System.currentTimeMillis()))
+            used++;
+        dirty = true;
+    }
+
+    /**
+     * Forces the records written since the last call to disk
+     */
+    public synchronized void sync() {
+        if (!dirty || table == null)
+            return;
+        table.force();
+        dirty = false;
+    }
+
+    /**
+     * Forces the remaining records to disk and releases the mapping
+     */
+    public synchronized void close() {
+        if (table != null)
+            table.force();
+        dirty = false;
+        table = null;
+        capacity = 0;
+        used = 0;
+    }
+
+    /**
+     * Writes an empty store of the given capacity and maps it. Only used while
+     * nothing is mapped, so the file can be replaced
+     */
+    private void create(int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + size * RECORD_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, size);
+        if (!plugin.getManager(FileManager.class).writeFileAtomically(file, buffer.array()))
+            throw new StorageException("Could not write " + file.getName());
+        try {
+            if (map()) {
+                dirty = false;
+                return;
+            }
+        } catch (IOException e) {
+            throw new StorageException("Could not map " + file.getName(), e);
+        }
+        throw new StorageException("Could not map " + file.getName());
+    }
+
+    /**
+     * Clears the table and writes the given cooldowns back into it, after
+     * mapping the file again at a larger size if needed
+     */
+    private void rehash(List<Cooldown> cooldowns, int size) {
+        table.force();
+        if (size > capacity) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) size * RECORD_SIZE);
+            } catch (IOException e) {
+                throw new StorageException("Could not grow " + file.getName(), e);
+            }
+        }
+
+        table.putInt(0, 0);
+        table.force();
+        byte[] zeros = new byte[RECORD_SIZE * 256];
+        int end = HEADER_SIZE + size * RECORD_SIZE;
+        for (int position = HEADER_SIZE; position < end; position += zeros.length)
+            table.put(position, zeros, 0, Math.min(zeros.length, end - position));
+        table.putInt(8, size);
+        capacity = size;
+        used = 0;
+        long now = System.currentTimeMillis();
+        for (Cooldown cooldown : cooldowns)
+            if (insert(table, size, cooldown, now))
+                used++;
+        table.putInt(0, MAGIC);
+        table.force();
+        dirty = false;
+    }
+
+    /**
+     * Writes a cooldown into its slot: the slot already holding the same key, or
+     * else the first reusable slot on its probe sequence
+     *
+     * @return true if a free slot was taken
+     */
+    private static boolean insert(ByteBuffer buffer, int size, Cooldown cooldown, long now) {
+        long msb = cooldown.getUuid().getMostSignificantBits();
+        long lsb = cooldown.getUuid().getLeastSignificantBits();
+        int crateId = cooldown.getCrateId();
+        int mask = size - 1;
+        int start = hash(msb, lsb, crateId) & mask;
+        int target = -1;
+        boolean fresh = false;
+
+        for (int i = 0; i < size; i++) {
+            int position = HEADER_SIZE + ((start + i) & mask) * RECORD_SIZE;
+            if (isFree(buffer, position)) {
+                if (target < 0) {
+                    target = position;
+                    fresh = true;
+                }
+                break;
+            }
+            if (buffer.getLong(position) == msb && buffer.getLong(position + 8) == lsb
+                    && buffer.getInt(position + 16) == crateId) {
+                target = position;
+                break;
+            }
+            if (target < 0 && !isLive(buffer, position, now))
+                target = position;
+        }
+        if (target < 0)
+            throw new StorageException("The cooldown store is full");
+
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer.wrap(record).putLong(msb).putLong(lsb).putInt(crateId).putInt(cooldown.getCooldownTime())
+                .putLong(cooldown.getExpiresAt()).putInt(checksum(record));
+        buffer.put(target, record);
+        return fresh;
+    }
+
+    private Cooldown read(int position) {
+        UUID uuid = new UUID(table.getLong(position), table.getLong(position + 8));
+        int cooldownTime = table.getInt(position + 20);
+        long expiresAt = table.getLong(position + 24);
+        return new Cooldown(uuid, table.getInt(position + 16), expiresAt - cooldownTime * 1000L, cooldownTime);
+    }
+
+    private boolean isFree(int position) {
+        return isFree(table, position);
+    }
+
+    private boolean isLive(int position, long now) {
+        return isLive(table, position, now);
+    }
+
+    private static boolean isFree(ByteBuffer buffer, int position) {
+        for (int i = 0; i < RECORD_SIZE; i += 8)
+            if (buffer.getLong(position + i) != 0)
+                return false;
+        return true;
+    }
+
+    private static boolean isLive(ByteBuffer buffer, int position, long now) {
+        if (isFree(buffer, position) || buffer.getLong(position + 24) <= now)
+            return false;
+        byte[] record = new byte[RECORD_SIZE];
+        buffer.get(position, record);
+        return ByteBuffer.wrap(record).getInt(CHECKED_SIZE) == checksum(record);
+    }
+
+    private static int position(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static int hash(long msb, long lsb, int crateId) {
+        long h = msb ^ lsb ^ (crateId * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, CHECKED_SIZE);
+        return (int) crc.getValue();
+    }
+}
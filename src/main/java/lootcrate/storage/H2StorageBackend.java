@@ -0,0 +1,36 @@
+package lootcrate.storage;
+
+import lootcrate.LootCrate;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Storage in an embedded H2 database, "storage.mv.db". The driver is fetched by
+ * the server from the libraries listed in plugin.yml.
+ */
+public class H2StorageBackend extends JdbcStorageBackend {
+
+    public H2StorageBackend(LootCrate plugin) {
+        super(plugin);
+    }
+
+    @Override
+    protected Connection connect() throws SQLException {
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("H2 driver not found", e);
+        }
+        plugin.getDataFolder().mkdirs();
+        return DriverManager.getConnection("jdbc:h2:"
+                + new File(plugin.getDataFolder(), "storage").getAbsolutePath());
+    }
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+}
@@ -0,0 +1,256 @@
+package lootcrate.storage;
+
+import lootcrate.LootCrate;
+import lootcrate.objects.CrateLocation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Storage in an embedded SQL database. Keys are stored as one row per player
+ * and crate with an amount, and writes are batched in a single transaction.
+ * <p>
+ * The schema is versioned: {@link #MIGRATIONS} holds the statements of each
+ * version in order, and only the versions newer than the stored one are run.
+ * A freshly created schema can be filled from another backend with
+ * {@link #importFrom(StorageBackend)}.
+ */
+public abstract class JdbcStorageBackend implements StorageBackend {
+    private static final String[][] MIGRATIONS = {
+            {
+                    "CREATE TABLE lootcrate_keys (player_uuid CHAR(36) NOT NULL, crate_id INT NOT NULL, "
+                            + "amount INT NOT NULL, PRIMARY KEY (player_uuid, crate_id))",
+                    "CREATE TABLE lootcrate_locations (id CHAR(36) NOT NULL PRIMARY KEY, crate_id INT NOT NULL, "
+                            + "world VARCHAR(255), x DOUBLE NOT NULL, y DOUBLE NOT NULL, z DOUBLE NOT NULL)",
+                    "CREATE INDEX lootcrate_locations_crate ON lootcrate_locations (crate_id)"
+            }
+    };
+
+    protected final LootCrate plugin;
+    private Connection connection;
+    private boolean created;
+
+    protected JdbcStorageBackend(LootCrate plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Opens a new connection to the database
+     *
+     * @return the connection
+     * @throws SQLException if the database cannot be reached
+     */
+    protected abstract Connection connect() throws SQLException;
+
+    @Override
+    public synchronized void open() {
+        try {
+            connection = connect();
+            migrate();
+        } catch (SQLException e) {
+            throw new StorageException("Could not open " + getName() + " storage", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null)
+            return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        connection = null;
+    }
+
+    private void migrate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS lootcrate_schema (version INT NOT NULL)");
+        }
+
+        int version = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT MAX(version) FROM lootcrate_schema")) {
+            if (result.next())
+                version = result.getInt(1);
+        }
+
+        created = version == 0;
+        for (int i = version; i < MIGRATIONS.length; i++) {
+            final int target = i + 1;
+            transaction(() -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : MIGRATIONS[target - 1])
+                        statement.executeUpdate(sql);
+                }
+                try (PreparedStatement statement = connection.prepareStatement("INSERT INTO lootcrate_schema (version) VALUES (?)")) {
+                    statement.setInt(1, target);
+                    statement.executeUpdate();
+                }
+            });
+            plugin.getLogger().info("Migrated " + getName() + " storage to schema version " + target + ".");
+        }
+    }
+
+    /**
+     * Checks whether the schema was created when this backend was opened, in
+     * which case the database holds nothing yet
+     *
+     * @return true if the schema did not exist before
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    /**
+     * Copies the keys and locations of another backend in a single transaction
+     *
+     * @param source backend to copy from
+     */
+    public synchronized void importFrom(StorageBackend source) {
+        Map<UUID, Map<Integer, Integer>> keys = source.loadKeys();
+        Map<String, CrateLocation> locations = source.loadLocations();
+        transaction(() -> {
+            writeKeys(keys);
+            for (CrateLocation location : locations.values())
+                writeLocation(location);
+        });
+        plugin.getLogger().info("Imported the keys of " + keys.size() + " player(s) and " + locations.size()
+                + " location(s) from " + source.getName() + " storage.");
+    }
+
+    @Override
+    public synchronized Map<UUID, Map<Integer, Integer>> loadKeys() {
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT player_uuid, crate_id, amount FROM lootcrate_keys");
+             ResultSet result = statement.executeQuery()) {
+            while (result.next())
+                keys.computeIfAbsent(UUID.fromString(result.getString(1)), uuid -> new LinkedHashMap<Integer, Integer>())
+                        .merge(result.getInt(2), result.getInt(3), Integer::sum);
+        } catch (SQLException e) {
+            throw new StorageException("Could not load keys", e);
+        }
+        return keys;
+    }
+
+    @Override
+    public synchronized Map<Integer, Integer> loadKeys(UUID uuid) {
+        Map<Integer, Integer> keys = new LinkedHashMap<Integer, Integer>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT crate_id, amount FROM lootcrate_keys WHERE player_uuid = ?")) {
+            statement.setString(1, uuid.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next())
+                    keys.merge(result.getInt(1), result.getInt(2), Integer::sum);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not load keys of " + uuid, e);
+        }
+        return keys;
+    }
+
+    @Override
+    public synchronized void saveKeys(Map<UUID, Map<Integer, Integer>> keys) {
+        if (keys.isEmpty())
+            return;
+        transaction(() -> writeKeys(keys));
+    }
+
+    private void writeKeys(Map<UUID, Map<Integer, Integer>> keys) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM lootcrate_keys WHERE player_uuid = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO lootcrate_keys (player_uuid, crate_id, amount) VALUES (?, ?, ?)")) {
+            for (Map.Entry<UUID, Map<Integer, Integer>> entry : keys.entrySet()) {
+                delete.setString(1, entry.getKey().toString());
+                delete.addBatch();
+
+                for (Map.Entry<Integer, Integer> count : entry.getValue().entrySet()) {
+                    if (count.getValue() <= 0)
+                        continue;
+                    insert.setString(1, entry.getKey().toString());
+                    insert.setInt(2, count.getKey());
+                    insert.setInt(3, count.getValue());
+                    insert.addBatch();
+                }
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    @Override
+    public synchronized Map<String, CrateLocation> loadLocations() {
+        Map<String, CrateLocation> locations = new LinkedHashMap<String, CrateLocation>();
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id, crate_id, world, x, y, z FROM lootcrate_locations");
+             ResultSet result = statement.executeQuery()) {
+            while (result.next())
+                locations.put(result.getString(1), new CrateLocation(result.getString(1), result.getInt(2),
+                        result.getString(3), result.getDouble(4), result.getDouble(5), result.getDouble(6)));
+        } catch (SQLException e) {
+            throw new StorageException("Could not load locations", e);
+        }
+        return locations;
+    }
+
+    @Override
+    public synchronized void saveLocation(CrateLocation location) {
+        transaction(() -> writeLocation(location));
+    }
+
+    private void writeLocation(CrateLocation location) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM lootcrate_locations WHERE id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO lootcrate_locations (id, crate_id, world, x, y, z) VALUES (?, ?, ?, ?, ?, ?)")) {
+            delete.setString(1, location.getId());
+            delete.executeUpdate();
+            insert.setString(1, location.getId());
+            insert.setInt(2, location.getCrateId());
+            insert.setString(3, location.getWorld());
+            insert.setDouble(4, location.getX());
+            insert.setDouble(5, location.getY());
+            insert.setDouble(6, location.getZ());
+            insert.executeUpdate();
+        }
+    }
+
+    @Override
+    public synchronized void removeLocation(String id) {
+        transaction(() -> {
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM lootcrate_locations WHERE id = ?")) {
+                delete.setString(1, id);
+                delete.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Runs the given work in a single transaction, rolled back if it fails
+     *
+     * @param work statements to run
+     */
+    private void transaction(SqlWork work) {
+        try {
+            connection.setAutoCommit(false);
+            try {
+                work.run();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("Could not write to " + getName() + " storage", e);
+        }
+    }
+
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,247 @@
+package lootcrate.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of virtual key changes. Every record holds the new amount
+ * of keys a player has for a crate, so replaying a record twice is harmless and
+ * the journal can be replayed on top of any older snapshot of the keys.
+ * <p>
+ * Records are buffered and written with a single fsync every
+ * {@link #FLUSH_INTERVAL_MILLIS}. Once the journal passes its size threshold it
+ * is rotated aside, the owner writes a snapshot of the players changed since
+ * the last one, and the rotated journal is deleted.
+ */
+public class KeyLedger {
+    private static final int RECORD_SIZE = 28;
+    private static final long FLUSH_INTERVAL_MILLIS = 50L;
+
+    private final Logger logger;
+    private final File journal;
+    private final File rotated;
+    private final long compactThreshold;
+
+    private final Object lock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_SIZE * 64);
+    private FileChannel channel;
+    private long size;
+    private boolean compactionRequested;
+    private Runnable compaction;
+    private ScheduledExecutorService executor;
+
+    public KeyLedger(Logger logger, File journal, long compactThreshold) {
+        this.logger = logger;
+        this.journal = journal;
+        this.rotated = new File(journal.getParentFile(), journal.getName() + ".old");
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * Applies the rotated journal, then the current one, on top of the given keys
+     *
+     * @param keys amount of keys by crate id, by player, updated in place
+     * @return the players that had at least one record
+     */
+    public Set<UUID> replay(Map<UUID, Map<Integer, Integer>> keys) {
+        synchronized (lock) {
+            flushPending();
+            Set<UUID> touched = new HashSet<UUID>();
+            replay(rotated, keys, touched);
+            replay(journal, keys, touched);
+            return touched;
+        }
+    }
+
+    private void replay(File file, Map<UUID, Map<Integer, Integer>> keys, Set<UUID> touched) {
+        if (!file.exists())
+            return;
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            UUID uuid = new UUID(buffer.getLong(), buffer.getLong());
+            int crateId = buffer.getInt();
+            int count = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (checksum != checksum(data, start)) {
+                // a torn write from a crash, nothing after it can be trusted
+                logger.warning("Ignoring " + (data.length - start) + " damaged byte(s) at the end of "
+                        + file.getName() + ".");
+                break;
+            }
+            Map<Integer, Integer> counts = keys.computeIfAbsent(uuid, key -> new LinkedHashMap<Integer, Integer>());
+            if (count > 0)
+                counts.put(crateId, count);
+            else
+                counts.remove(crateId);
+            touched.add(uuid);
+        }
+    }
+
+    /**
+     * Opens the journal for appending
+     *
+     * @param compaction task run on the journal thread once the journal is too large
+     */
+    public void open(Runnable compaction) {
+        synchronized (lock) {
+            this.compaction = compaction;
+            try {
+                openChannel();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LootCrate-KeyLedger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(journal.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    /**
+     * Records the new amount of keys a player has for a crate
+     *
+     * @param uuid    the UUID of the player
+     * @param crateId id of the crate
+     * @param count   amount of keys after the change
+     */
+    public void append(UUID uuid, int crateId, int count) {
+        synchronized (lock) {
+            if (pending.remaining() < RECORD_SIZE) {
+                ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            int start = pending.position();
+            pending.putLong(uuid.getMostSignificantBits());
+            pending.putLong(uuid.getLeastSignificantBits());
+            pending.putInt(crateId);
+            pending.putInt(count);
+            pending.putInt(checksum(pending.array(), start));
+
+            if (!compactionRequested && size + pending.position() >= compactThreshold && executor != null
+                    && !executor.isShutdown()) {
+                compactionRequested = true;
+                executor.execute(compaction);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered records and forces them to disk
+     */
+    public void flush() {
+        synchronized (lock) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.position() == 0 || channel == null)
+            return;
+        pending.flip();
+        try {
+            while (pending.hasRemaining())
+                size += channel.write(pending);
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        pending.clear();
+    }
+
+    /**
+     * Moves the journal aside so a snapshot can be taken, and starts a new one.
+     * Does nothing if a rotated journal is still waiting for its snapshot
+     *
+     * @return true if the journal was rotated
+     */
+    public boolean rotate() {
+        synchronized (lock) {
+            compactionRequested = false;
+            if (rotated.exists())
+                return false;
+            flushPending();
+            try {
+                channel.close();
+                Files.move(journal.toPath(), rotated.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                openChannel();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return rotated.exists();
+        }
+    }
+
+    /**
+     * Deletes the rotated journal once its snapshot has been saved
+     */
+    public void completeCompaction() {
+        try {
+            Files.deleteIfExists(rotated.toPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flushes the remaining records and closes the journal
+     */
+    public void close() {
+        if (executor != null)
+            executor.shutdown();
+        synchronized (lock) {
+            flushPending();
+            if (channel == null)
+                return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    private static int checksum(byte[] data, int start) {
+        CRC32 crc = new CRC32();
+        crc.update(data, start, RECORD_SIZE - 4);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,42 @@
+package lootcrate.storage;
+
+import lootcrate.LootCrate;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Storage in an embedded SQLite database, "storage.db". The driver ships with
+ * the server.
+ */
+public class SQLiteStorageBackend extends JdbcStorageBackend {
+
+    public SQLiteStorageBackend(LootCrate plugin) {
+        super(plugin);
+    }
+
+    @Override
+    protected Connection connect() throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite driver not found", e);
+        }
+        plugin.getDataFolder().mkdirs();
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:"
+                + new File(plugin.getDataFolder(), "storage.db").getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+        }
+        return connection;
+    }
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+}
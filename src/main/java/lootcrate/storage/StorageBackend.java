@@ -0,0 +1,77 @@
+package lootcrate.storage;
+
+import lootcrate.objects.CrateLocation;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persistent store for player keys and crate locations. The active
+ * implementation is chosen in config.yml and opened once by the StorageManager.
+ * Cooldowns are kept in their own {@link CooldownStore}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Opens the store, creating or migrating its schema when needed
+     *
+     * @throws StorageException if the store cannot be opened
+     */
+    void open() throws StorageException;
+
+    /**
+     * Releases the store. Nothing can be read or written afterwards
+     */
+    void close();
+
+    /**
+     * Gets the name of the backend, as shown in logs
+     *
+     * @return name of the backend
+     */
+    String getName();
+
+    /**
+     * Loads the virtual keys of every player
+     *
+     * @return amount of keys by crate id, by player
+     */
+    Map<UUID, Map<Integer, Integer>> loadKeys();
+
+    /**
+     * Loads the virtual keys of a single player
+     *
+     * @param uuid the UUID of the player
+     * @return amount of keys by crate id
+     */
+    Map<Integer, Integer> loadKeys(UUID uuid);
+
+    /**
+     * Replaces the stored keys of the given players in a single batch. Players
+     * missing from the map are left untouched
+     *
+     * @param keys amount of keys by crate id, by player
+     */
+    void saveKeys(Map<UUID, Map<Integer, Integer>> keys);
+
+    /**
+     * Loads every crate location, by location id
+     *
+     * @return map of stored locations
+     */
+    Map<String, CrateLocation> loadLocations();
+
+    /**
+     * Stores a location, replacing any location with the same id
+     *
+     * @param location location to store
+     */
+    void saveLocation(CrateLocation location);
+
+    /**
+     * Removes the location of the given id
+     *
+     * @param id id of the location
+     */
+    void removeLocation(String id);
+}
@@ -0,0 +1,15 @@
+package lootcrate.storage;
+
+/**
+ * Thrown when a storage backend cannot read or write its data
+ */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
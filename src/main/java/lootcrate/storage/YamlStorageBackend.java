@@ -0,0 +1,183 @@
+package lootcrate.storage;
+
+import lootcrate.LootCrate;
+import lootcrate.enums.FileType;
+import lootcrate.managers.FileManager;
+import lootcrate.objects.Cooldown;
+import lootcrate.objects.CrateLocation;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The original storage: "player_keys.yml" and "locations.yml". Every write
+ * rewrites the whole file it touches. The cooldowns of the old "cooldowns.yml"
+ * can still be read, to be imported into the cooldown store.
+ */
+public class YamlStorageBackend implements StorageBackend {
+    private final String KEY_PREFIX = "keys";
+    private final String COOLDOWN_PREFIX = "cooldowns";
+
+    private final LootCrate plugin;
+    private File keyFile;
+    private File cooldownFile;
+    private File locationFile;
+
+    public YamlStorageBackend(LootCrate plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void open() {
+        keyFile = getFileManager().getFile(FileType.KEYS);
+        cooldownFile = getFileManager().getFile(FileType.COOLDOWNS);
+        locationFile = getFileManager().getFile(FileType.LOCATIONS);
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+
+    /**
+     * Loads every player's keys. Players stored in the old format, one list
+     * entry per key, are converted to counts and written back once
+     */
+    @Override
+    public synchronized Map<UUID, Map<Integer, Integer>> loadKeys() {
+        FileConfiguration config = getFileManager().getConfiguration(keyFile);
+        Map<UUID, Map<Integer, Integer>> map = new HashMap<UUID, Map<Integer, Integer>>();
+        ConfigurationSection section = config.getConfigurationSection(KEY_PREFIX);
+        if (section == null)
+            return map;
+
+        boolean migrated = false;
+        for (String s : section.getKeys(false)) {
+            Map<Integer, Integer> counts = readCounts(section, s);
+            if (section.isList(s)) {
+                section.set(s, writeCounts(counts));
+                migrated = true;
+            }
+            map.put(UUID.fromString(s), counts);
+        }
+
+        if (migrated)
+            getFileManager().saveFile(keyFile, config);
+        return map;
+    }
+
+    @Override
+    public synchronized Map<Integer, Integer> loadKeys(UUID uuid) {
+        FileConfiguration config = getFileManager().getConfiguration(keyFile);
+        ConfigurationSection section = config.getConfigurationSection(KEY_PREFIX);
+        return section == null ? new LinkedHashMap<Integer, Integer>() : readCounts(section, uuid.toString());
+    }
+
+    @Override
+    public synchronized void saveKeys(Map<UUID, Map<Integer, Integer>> keys) {
+        FileConfiguration config = getFileManager().getConfiguration(keyFile);
+        for (Map.Entry<UUID, Map<Integer, Integer>> entry : keys.entrySet())
+            config.set(KEY_PREFIX + "." + entry.getKey(), writeCounts(entry.getValue()));
+        getFileManager().saveFile(keyFile, config);
+    }
+
+    private Map<Integer, Integer> readCounts(ConfigurationSection section, String path) {
+        Map<Integer, Integer> counts = new LinkedHashMap<Integer, Integer>();
+        if (section.isList(path)) {
+            for (int crateId : section.getIntegerList(path))
+                counts.merge(crateId, 1, Integer::sum);
+            return counts;
+        }
+
+        ConfigurationSection player = section.getConfigurationSection(path);
+        if (player == null)
+            return counts;
+        for (String crateId : player.getKeys(false)) {
+            try {
+                counts.merge(Integer.parseInt(crateId), player.getInt(crateId), Integer::sum);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Object> writeCounts(Map<Integer, Integer> counts) {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (Map.Entry<Integer, Integer> count : counts.entrySet())
+            if (count.getValue() > 0)
+                map.put(String.valueOf(count.getKey()), count.getValue());
+        return map.isEmpty() ? null : map;
+    }
+
+    /**
+     * Loads the cooldowns of "cooldowns.yml", which is no longer written to
+     *
+     * @return list of cooldowns
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<Cooldown> loadCooldowns() {
+        FileConfiguration config = getFileManager().getConfiguration(cooldownFile);
+        List<Cooldown> cooldowns = new ArrayList<Cooldown>();
+        if (!config.contains(COOLDOWN_PREFIX))
+            return cooldowns;
+
+        for (Map<?, ?> serializedCooldown : config.getMapList(COOLDOWN_PREFIX))
+            cooldowns.add(new Cooldown((Map<String, Object>) serializedCooldown));
+        return cooldowns;
+    }
+
+    @Override
+    public synchronized Map<String, CrateLocation> loadLocations() {
+        FileConfiguration config = getFileManager().getConfiguration(locationFile);
+        Map<String, CrateLocation> locations = new LinkedHashMap<String, CrateLocation>();
+        for (String s : config.getKeys(false)) {
+            ConfigurationSection section = config.getConfigurationSection(s);
+            if (section == null || section.get("Crate") == null || section.get("Location") == null)
+                continue;
+            locations.put(s, new CrateLocation(s, section.getInt("Crate"), section.getString("Location.world"),
+                    section.getDouble("Location.x"), section.getDouble("Location.y"),
+                    section.getDouble("Location.z")));
+        }
+        return locations;
+    }
+
+    @Override
+    public synchronized void saveLocation(CrateLocation location) {
+        FileConfiguration config = getFileManager().getConfiguration(locationFile);
+        Map<String, Object> serialized = new LinkedHashMap<String, Object>();
+        serialized.put("world", location.getWorld());
+        serialized.put("x", location.getX());
+        serialized.put("y", location.getY());
+        serialized.put("z", location.getZ());
+        serialized.put("pitch", 0.0F);
+        serialized.put("yaw", 0.0F);
+
+        config.set(location.getId(), null);
+        config.set(location.getId() + ".Crate", location.getCrateId());
+        config.set(location.getId() + ".Location", serialized);
+        getFileManager().saveFile(locationFile, config);
+    }
+
+    @Override
+    public synchronized void removeLocation(String id) {
+        FileConfiguration config = getFileManager().getConfiguration(locationFile);
+        config.set(id, null);
+        getFileManager().saveFile(locationFile, config);
+    }
+
+    private FileManager getFileManager() {
+        return plugin.getManager(FileManager.class);
+    }
+}
@@ -1,18 +1,68 @@
 package lootcrate.utils;
 
+import lootcrate.LootCrate;
 import lootcrate.enums.SortType;
+import lootcrate.objects.Crate;
 import lootcrate.objects.CrateItem;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 public class InventoryUtils {
     public static boolean isFull(Inventory i) {
         return i.firstEmpty() == -1;
     }
 
+    /**
+     * Removes up to the given amount of physical keys of a crate from an inventory
+     *
+     * @param plugin Instance of plugin
+     * @param i Inventory to take the keys from
+     * @param crate Crate the keys belong to
+     * @param amount Maximum amount of keys to remove
+     * @return the amount of keys actually removed
+     */
+    public static int removeKeys(LootCrate plugin, Inventory i, Crate crate, int amount) {
+        ItemStack[] contents = i.getStorageContents();
+        int removed = 0;
+        for (int slot = 0; slot < contents.length && removed < amount; slot++) {
+            ItemStack item = contents[slot];
+            if (item == null || !ObjUtils.doKeysMatch(plugin, item, crate))
+                continue;
+            int taken = Math.min(item.getAmount(), amount - removed);
+            item.setAmount(item.getAmount() - taken);
+            i.setItem(slot, item.getAmount() == 0 ? null : item);
+            removed += taken;
+        }
+        return removed;
+    }
+
+    /**
+     * Splits merged item totals into stacks no larger than each item's max stack size
+     *
+     * @param amounts Items with an amount of 1, mapped to the total amount wanted
+     * @return the full stacks, ready for a single inventory insert
+     */
+    public static ItemStack[] toStacks(Map<ItemStack, Integer> amounts) {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (Map.Entry<ItemStack, Integer> entry : amounts.entrySet()) {
+            int maxStackSize = Math.max(1, entry.getKey().getMaxStackSize());
+            int left = entry.getValue();
+            while (left > 0) {
+                ItemStack stack = entry.getKey().clone();
+                stack.setAmount(Math.min(left, maxStackSize));
+                left -= stack.getAmount();
+                stacks.add(stack);
+            }
+        }
+        return stacks.toArray(new ItemStack[0]);
+    }
+
     public static void sort(List<CrateItem> items, SortType sortType) {
         switch (sortType) {
             case NONE -> Collections.sort(items);
@@ -0,0 +1,331 @@
+package lootcrate.utils;
+
+import lootcrate.enums.CrateOptionType;
+import lootcrate.objects.Crate;
+import lootcrate.objects.CrateItem;
+import lootcrate.objects.CrateKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary encoding of the crate catalog, used to boot without going through the
+ * yaml files. Every crate is encoded on its own so a single changed crate can be
+ * re-encoded without touching the others; items and keys are stored as the bytes
+ * of a BukkitObjectOutputStream and options as typed fields. The header lists the
+ * size and modification time of every crate file the snapshot was built from.
+ */
+public class SnapshotUtils {
+    public static final int VERSION = 2;
+    private static final int MAGIC = 0x4C43534E; // "LCSN"
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_STRING = 5;
+    private static final byte TYPE_OBJECT = 6;
+
+    /**
+     * Joins encoded crates into a snapshot file
+     *
+     * @param sources The crate files the crates were read from, by file name
+     * @param crates  Crates encoded by {@link #encodeCrate(Crate)}
+     * @return The content of the snapshot file
+     */
+    public static byte[] writeCatalog(Map<String, Source> sources, Collection<byte[]> crates) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sources.size());
+        for (Map.Entry<String, Source> source : sources.entrySet()) {
+            out.writeUTF(source.getKey());
+            out.writeLong(source.getValue().getSize());
+            out.writeLong(source.getValue().getLastModified());
+        }
+        out.writeInt(crates.size());
+        for (byte[] crate : crates) {
+            out.writeInt(crate.length);
+            out.write(crate);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Splits a snapshot file back into its encoded crates
+     *
+     * @param data The content of the snapshot file
+     * @return The catalog, whose crates are read with {@link #decodeCrate(byte[])}
+     * @throws IOException if the file is not a snapshot of this version
+     */
+    public static Catalog readCatalog(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC)
+            throw new IOException("not a crate snapshot");
+        int version = in.readInt();
+        if (version != VERSION)
+            throw new IOException("unsupported snapshot version " + version);
+
+        int sourceCount = in.readInt();
+        Map<String, Source> sources = new LinkedHashMap<String, Source>();
+        for (int i = 0; i < sourceCount; i++) {
+            String name = in.readUTF();
+            sources.put(name, new Source(in.readLong(), in.readLong()));
+        }
+
+        int size = in.readInt();
+        List<byte[]> crates = new ArrayList<byte[]>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] crate = new byte[in.readInt()];
+            in.readFully(crate);
+            crates.add(crate);
+        }
+        return new Catalog(sources, crates);
+    }
+
+    public static byte[] encodeCrate(Crate crate) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(crate.getId());
+        writeNullableString(out, crate.getName());
+
+        out.writeInt(crate.getOptions().size());
+        for (Map.Entry<CrateOptionType, Object> option : crate.getOptions().entrySet()) {
+            out.writeUTF(option.getKey().getKey());
+            writeValue(out, option.getValue());
+        }
+
+        CrateKey key = crate.getKey();
+        out.writeBoolean(key != null);
+        if (key != null) {
+            out.writeBoolean(key.isGlowing());
+            out.writeBoolean(key.getItem() != null);
+            if (key.getItem() != null)
+                writeBlob(out, toBytes(key.getItem()));
+        }
+
+        out.writeInt(crate.getItems().size());
+        for (CrateItem item : crate.getItems()) {
+            out.writeInt(item.getId());
+            out.writeDouble(item.getChance());
+            out.writeInt(item.getMinAmount());
+            out.writeInt(item.getMaxAmount());
+            out.writeBoolean(item.isDisplay());
+            List<String> commands = item.getCommands() == null ? new ArrayList<String>() : item.getCommands();
+            out.writeInt(commands.size());
+            for (String command : commands)
+                out.writeUTF(command);
+            writeBlob(out, toBytes(item.getItem()));
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static Crate decodeCrate(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        int id = in.readInt();
+        String name = readNullableString(in);
+
+        int optionCount = in.readInt();
+        Map<CrateOptionType, Object> options = new LinkedHashMap<CrateOptionType, Object>();
+        for (int i = 0; i < optionCount; i++) {
+            CrateOptionType type = CrateOptionType.fromKey(in.readUTF());
+            Object value = readValue(in);
+            if (type != null)
+                options.put(type, value);
+        }
+
+        // a crate without a key item still gets a key, as it does when loaded from yaml
+        CrateKey key = new CrateKey(null, false);
+        if (in.readBoolean()) {
+            boolean glowing = in.readBoolean();
+            ItemStack keyItem = in.readBoolean() ? (ItemStack) fromBytes(readBlob(in)) : null;
+            key = new CrateKey(keyItem, glowing);
+        }
+
+        int itemCount = in.readInt();
+        List<CrateItem> items = new ArrayList<CrateItem>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int itemId = in.readInt();
+            double chance = in.readDouble();
+            int minAmount = in.readInt();
+            int maxAmount = in.readInt();
+            boolean display = in.readBoolean();
+            int commandCount = in.readInt();
+            List<String> commands = new ArrayList<String>(commandCount);
+            for (int j = 0; j < commandCount; j++)
+                commands.add(in.readUTF());
+            ItemStack stack = (ItemStack) fromBytes(readBlob(in));
+
+            CrateItem item = new CrateItem(stack, minAmount, maxAmount, chance, display, commands);
+            item.setId(itemId);
+            items.add(item);
+        }
+
+        Crate crate = new Crate(name, key, items, options);
+        crate.setId(id);
+        return crate;
+    }
+
+    /**
+     * Size and modification time of a crate file, compared on boot to tell
+     * whether the file changed since the snapshot was written
+     */
+    public static class Source {
+        private final long size;
+        private final long lastModified;
+
+        public Source(long size, long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Source))
+                return false;
+            Source source = (Source) o;
+            return size == source.size && lastModified == source.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified);
+        }
+    }
+
+    /**
+     * The content of a snapshot file
+     */
+    public static class Catalog {
+        private final Map<String, Source> sources;
+        private final List<byte[]> crates;
+
+        public Catalog(Map<String, Source> sources, List<byte[]> crates) {
+            this.sources = sources;
+            this.crates = crates;
+        }
+
+        /**
+         * @return The crate files the snapshot was built from, by file name
+         */
+        public Map<String, Source> getSources() {
+            return sources;
+        }
+
+        public List<byte[]> getCrates() {
+            return crates;
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF((String) value);
+        } else {
+            out.writeByte(TYPE_OBJECT);
+            writeBlob(out, toBytes(value));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_STRING:
+                return in.readUTF();
+            case TYPE_OBJECT:
+                return fromBytes(readBlob(in));
+            default:
+                throw new IOException("unknown option type " + type);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null)
+            out.writeUTF(value);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeBlob(DataOutputStream out, byte[] blob) throws IOException {
+        out.writeInt(blob.length);
+        out.write(blob);
+    }
+
+    private static byte[] readBlob(DataInputStream in) throws IOException {
+        byte[] blob = new byte[in.readInt()];
+        in.readFully(blob);
+        return blob;
+    }
+
+    private static byte[] toBytes(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object fromBytes(byte[] bytes) throws IOException {
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package lootcrate.objects;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimingWheelTest {
+
+    /**
+     * Schedules one entry per delay, advances one tick at a time and checks that
+     * every entry expires exactly at its tick
+     */
+    private void assertExpiresOnTime(long start, long... delays) {
+        TimingWheel<Long> wheel = new TimingWheel<Long>(1L, start);
+        long last = 0;
+        for (long delay : delays) {
+            wheel.schedule(delay, start + delay);
+            last = Math.max(last, delay);
+        }
+
+        Map<Long, Long> expiredAt = new HashMap<Long, Long>();
+        for (long tick = 1; tick <= last + 1; tick++) {
+            final long now = tick;
+            wheel.advance(start + now, delay -> expiredAt.put(delay, now));
+        }
+
+        for (long delay : delays)
+            assertEquals("entry due in " + delay + " ticks from " + start, Long.valueOf(delay), expiredAt.get(delay));
+    }
+
+    @Test
+    public void expiresAroundTheFirstCascade() {
+        assertExpiresOnTime(0L, 1, 62, 63, 64, 65, 127, 128, 129);
+    }
+
+    @Test
+    public void expiresAroundTheSecondCascade() {
+        assertExpiresOnTime(0L, 4031, 4032, 4095, 4096, 4097, 4159, 4160, 8191, 8192);
+    }
+
+    @Test
+    public void expiresOnTimeFromAnUnalignedStart() {
+        assertExpiresOnTime(37L, 26, 27, 28, 63, 64, 65, 4058, 4059, 4060, 4095, 4096, 4097);
+        assertExpiresOnTime(4095L, 1, 63, 64, 4095, 4096);
+    }
+
+    @Test
+    public void expiresEntriesPastTheLastLevel() {
+        long top = 1L << 18;
+        assertExpiresOnTime(5L, top - 6, top - 5, top - 1, top, top + 1);
+    }
+
+    @Test
+    public void expiresEverythingDueAfterALongPause() {
+        TimingWheel<Long> wheel = new TimingWheel<Long>(1L, 0L);
+        wheel.schedule(64L, 64L);
+        wheel.schedule(4096L, 4096L);
+        wheel.schedule(1L << 20, 1L << 20);
+
+        List<Long> expired = new ArrayList<Long>();
+        wheel.advance(1L << 19, expired::add);
+        assertEquals(2, expired.size());
+        assertTrue(expired.contains(64L) && expired.contains(4096L));
+
+        wheel.advance(1L << 20, expired::add);
+        assertEquals(3, expired.size());
+    }
+
+    @Test
+    public void roundsExpiryUpToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<String>(1000L, 0L);
+        wheel.schedule("cooldown", 64_500L);
+
+        List<String> expired = new ArrayList<String>();
+        wheel.advance(64_999L, expired::add);
+        assertTrue(expired.isEmpty());
+        wheel.advance(65_000L, expired::add);
+        assertEquals(1, expired.size());
+    }
+}
@@ -0,0 +1,168 @@
+package lootcrate.storage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class KeyLedgerTest {
+    private static final int RECORD_SIZE = 28;
+    private static final Logger LOGGER = Logger.getLogger(KeyLedgerTest.class.getName());
+
+    private final UUID alice = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID bob = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private File folder;
+    private File journal;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("keyledger").toFile();
+        journal = new File(folder, "keys.journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(folder.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void replaysTheLastCountOfEveryPlayerAndCrate() {
+        KeyLedger ledger = new KeyLedger(LOGGER, journal, Long.MAX_VALUE);
+        ledger.open(() -> {
+        });
+        ledger.append(alice, 1, 3);
+        ledger.append(alice, 2, 1);
+        ledger.append(bob, 1, 5);
+        ledger.append(alice, 1, 2);
+        ledger.append(alice, 2, 0);
+        ledger.close();
+
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        Set<UUID> touched = new KeyLedger(LOGGER, journal, Long.MAX_VALUE).replay(keys);
+
+        assertEquals(2, touched.size());
+        assertEquals(Integer.valueOf(2), keys.get(alice).get(1));
+        assertNull(keys.get(alice).get(2));
+        assertEquals(Integer.valueOf(5), keys.get(bob).get(1));
+        assertEquals(3 * RECORD_SIZE + 2 * RECORD_SIZE, journal.length());
+    }
+
+    @Test
+    public void replaysOnTopOfAnOlderSnapshot() {
+        KeyLedger ledger = new KeyLedger(LOGGER, journal, Long.MAX_VALUE);
+        ledger.open(() -> {
+        });
+        ledger.append(alice, 1, 4);
+        ledger.close();
+
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        Map<Integer, Integer> snapshot = new HashMap<Integer, Integer>();
+        snapshot.put(1, 1);
+        snapshot.put(7, 9);
+        keys.put(alice, snapshot);
+        new KeyLedger(LOGGER, journal, Long.MAX_VALUE).replay(keys);
+
+        assertEquals(Integer.valueOf(4), keys.get(alice).get(1));
+        assertEquals(Integer.valueOf(9), keys.get(alice).get(7));
+    }
+
+    @Test
+    public void ignoresATornTailRecord() throws IOException {
+        KeyLedger ledger = new KeyLedger(LOGGER, journal, Long.MAX_VALUE);
+        ledger.open(() -> {
+        });
+        ledger.append(alice, 1, 3);
+        ledger.append(bob, 1, 5);
+        ledger.close();
+        // a crash in the middle of the next record
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            file.seek(file.length());
+            file.write(new byte[RECORD_SIZE / 2]);
+        }
+
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        new KeyLedger(LOGGER, journal, Long.MAX_VALUE).replay(keys);
+
+        assertEquals(Integer.valueOf(3), keys.get(alice).get(1));
+        assertEquals(Integer.valueOf(5), keys.get(bob).get(1));
+    }
+
+    @Test
+    public void stopsAtACorruptRecord() throws IOException {
+        KeyLedger ledger = new KeyLedger(LOGGER, journal, Long.MAX_VALUE);
+        ledger.open(() -> {
+        });
+        ledger.append(alice, 1, 3);
+        ledger.append(alice, 1, 8);
+        ledger.append(bob, 1, 5);
+        ledger.close();
+        // flip a bit in the count of the second record
+        try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+            long position = RECORD_SIZE + 20;
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 1);
+        }
+
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        Set<UUID> touched = new KeyLedger(LOGGER, journal, Long.MAX_VALUE).replay(keys);
+
+        assertEquals(Integer.valueOf(3), keys.get(alice).get(1));
+        assertFalse(touched.contains(bob));
+    }
+
+    @Test
+    public void compactsOnceTheJournalPassesTheThreshold() throws InterruptedException {
+        CountDownLatch requested = new CountDownLatch(1);
+        KeyLedger ledger = new KeyLedger(LOGGER, journal, 2 * RECORD_SIZE);
+        ledger.open(requested::countDown);
+        ledger.append(alice, 1, 1);
+        ledger.append(alice, 1, 2);
+        assertTrue(requested.await(5, TimeUnit.SECONDS));
+
+        File rotated = new File(folder, journal.getName() + ".old");
+        assertTrue(ledger.rotate());
+        assertTrue(rotated.exists());
+        ledger.append(bob, 1, 6);
+        // the snapshot of the rotated journal is not saved yet
+        assertFalse(ledger.rotate());
+
+        Map<UUID, Map<Integer, Integer>> keys = new HashMap<UUID, Map<Integer, Integer>>();
+        ledger.replay(keys);
+        assertEquals(Integer.valueOf(2), keys.get(alice).get(1));
+        assertEquals(Integer.valueOf(6), keys.get(bob).get(1));
+
+        ledger.completeCompaction();
+        ledger.close();
+        assertFalse(rotated.exists());
+        assertEquals(RECORD_SIZE, journal.length());
+
+        keys = new HashMap<UUID, Map<Integer, Integer>>();
+        new KeyLedger(LOGGER, journal, Long.MAX_VALUE).replay(keys);
+        assertNull(keys.get(alice));
+        assertEquals(Integer.valueOf(6), keys.get(bob).get(1));
+    }
+}